@@ -5,6 +5,7 @@ import gg.hipposgrumm.bmbc.BMBC_Main;
 import net.matty.bmbc.block.ModBlocks;
 import net.matty.bmbc.block.ModFluidBlocks;
 import net.matty.bmbc.block.entity.ModBlockEntities;
+import net.matty.bmbc.config.ModCommonConfigs;
 import net.matty.bmbc.creativemode_tab.*;
 import net.matty.bmbc.fluid.ModFluidTypes;
 import net.matty.bmbc.fluid.ModFluids;
@@ -23,7 +24,9 @@ import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.CreativeModeTabEvent;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
+import net.minecraftforge.fml.ModLoadingContext;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.fml.config.ModConfig;
 import net.minecraftforge.fml.event.lifecycle.FMLClientSetupEvent;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.minecraftforge.fml.javafmlmod.FMLJavaModLoadingContext;
@@ -62,6 +65,8 @@ public class BetterMineBetterCraft {
 
         new BMBC_Main(modEventBus);
 
+        ModLoadingContext.get().registerConfig(ModConfig.Type.COMMON, ModCommonConfigs.SPEC, "bmbc-common.toml");
+
         modEventBus.addListener(this::commonSetup);
         MinecraftForge.EVENT_BUS.register(this);
 
@@ -195,6 +200,9 @@ public class BetterMineBetterCraft {
             event.accept(ModMachineComponents.IRON_ROD);
             event.accept(ModMineralItems.MAGNETIC_IRON_INGOT);
             event.accept(ModMachineComponents.MAGNETIC_IRON_ROD);
+            event.accept(ModMachineComponents.SPEED_UPGRADE);
+            event.accept(ModMachineComponents.ENERGY_EFFICIENCY_UPGRADE);
+            event.accept(ModMachineComponents.PARALLEL_PROCESSING_UPGRADE);
             event.accept(ModItems.PCB_HIGH_GRADE_BLANK);
             event.accept(ModItems.PCB_LOW_GRADE_BLANK);
 
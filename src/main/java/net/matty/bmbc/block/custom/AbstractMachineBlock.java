@@ -0,0 +1,26 @@
+package net.matty.bmbc.block.custom;
+
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.BaseEntityBlock;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Base for the blocks of the bmbc machines, see {@link AbstractMachineBlockEntity}.
+ */
+public abstract class AbstractMachineBlock extends BaseEntityBlock {
+    protected AbstractMachineBlock(Properties properties) {
+        super(properties);
+    }
+
+    // A dormant machine wakes up when a neighbour changes
+    @Override
+    public void neighborChanged(BlockState pState, Level pLevel, BlockPos pPos, Block pBlock, BlockPos pFromPos, boolean pIsMoving) {
+        super.neighborChanged(pState, pLevel, pPos, pBlock, pFromPos, pIsMoving);
+        if (pLevel.getBlockEntity(pPos) instanceof AbstractMachineBlockEntity machine) {
+            machine.wake();
+        }
+    }
+}
@@ -30,7 +30,7 @@ import net.minecraft.world.phys.shapes.VoxelShape;
 import net.minecraftforge.network.NetworkHooks;
 import org.jetbrains.annotations.Nullable;
 
-public class AlloyFurnaceBlock extends BaseEntityBlock {
+public class AlloyFurnaceBlock extends AbstractMachineBlock {
     public static final DirectionProperty FACING = BlockStateProperties.HORIZONTAL_FACING;
     public static final BooleanProperty ACTIVE = BooleanProperty.create("active");
     public AlloyFurnaceBlock(Properties pProperties) {
@@ -0,0 +1,914 @@
+package net.matty.bmbc.block.entity;
+
+import net.matty.bmbc.config.ModCommonConfigs;
+import net.matty.bmbc.item.custom.MachineUpgradeItem;
+import net.matty.bmbc.networking.MachineSyncBundler;
+import net.matty.bmbc.networking.ModNetworkingPackets;
+import net.matty.bmbc.networking.packet.MachineSyncS2CPacket;
+import net.matty.bmbc.recipe.MachineRecipe;
+import net.matty.bmbc.screen.MachineMenu;
+import net.matty.bmbc.util.BmbcEnergyStorage;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.Direction;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.network.Connection;
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientGamePacketListener;
+import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.Containers;
+import net.minecraft.world.MenuProvider;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.inventory.ContainerData;
+import net.minecraft.world.inventory.SimpleContainerData;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BooleanProperty;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.common.capabilities.Capability;
+import net.minecraftforge.common.capabilities.ForgeCapabilities;
+import net.minecraftforge.common.util.LazyOptional;
+import net.minecraftforge.energy.IEnergyStorage;
+import net.minecraftforge.fluids.FluidStack;
+import net.minecraftforge.fluids.capability.IFluidHandler;
+import net.minecraftforge.fluids.capability.IFluidHandlerItem;
+import net.minecraftforge.fluids.capability.templates.FluidTank;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.ItemStackHandler;
+import net.minecraftforge.registries.ForgeRegistries;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Predicate;
+
+/**
+ * Shared processing loop for all bmbc machines. Subclasses plug in a recipe stage ({@link #hasRecipe()} and
+ * {@link #craftItem(int)}) and can opt into an energy stage ({@link #withEnergyStorage}) and a fluid stage
+ * ({@link #withFluidTank}) from their constructor.
+ */
+public abstract class AbstractMachineBlockEntity extends BlockEntity implements MenuProvider {
+    public static final int UPGRADE_SLOTS = 3;
+    public static final int DATA_SLOTS = 5;
+
+    protected final ItemStackHandler itemHandler;
+    protected final ItemStackHandler upgradeHandler;
+    protected final ContainerData data;
+    protected int progress = 0;
+    // Whether progress advanced this tick. On the client, whether to predict it advancing since progressSyncTime.
+    private boolean progressRunning = false;
+    private long progressSyncTime;
+    protected int maxProgress;
+    // Duration and energy before upgrades: the current recipe's, or the machine's defaults if it doesn't set them
+    private int baseMaxProgress;
+    private final int defaultMaxProgress;
+
+    // Crafts per cycle allowed by the upgrades, and how many the current cycle is actually running
+    protected int parallel = 1;
+    private int batchSize = 1;
+    private MachineModifiers modifiers = MachineModifiers.NONE;
+
+    @Nullable
+    protected BmbcEnergyStorage energyStorage;
+    protected int energyPerTick;
+    private int baseEnergyPerTick;
+    private int defaultEnergyPerTick;
+
+    @Nullable
+    protected FluidTank fluidTank;
+    protected int fluidSourceSlot = -1;
+
+    private final String name;
+
+    // A dormant machine skips its tick until something it depends on changes
+    private boolean sleeping = false;
+    @Nullable
+    private RecipeManager sleepingRecipeManager;
+
+    // Heights in pixels of the energy bar and the fluid gauge
+    private static final int ENERGY_SYNC_STEPS = 64;
+    private static final int FLUID_SYNC_STEPS = 61;
+
+    // Fields that changed since the last sync, sent to clients once at the end of our tick. Energy and fluid go to
+    // everyone tracking the chunk, progress only to the players with our menu open.
+    private int syncDirty = 0;
+    private static final int VIEWER_SYNC_FIELDS = MachineSyncS2CPacket.PROGRESS | MachineSyncS2CPacket.STATE;
+    // What the tracking clients were last sent, deltas are relative to this. Clients keep the same values here, they
+    // start out with them from the update tag in the chunk data.
+    private int syncedEnergy, syncedFluidAmount;
+    private Fluid syncedFluid = Fluids.EMPTY;
+
+    // Changes made during our own tick are saved with a single setChanged at the end of it
+    private boolean ticking = false;
+    private boolean dirty = false;
+
+    @Nullable
+    private ActiveStateController activeState;
+
+    private final int tickBucket;
+
+    // Game time of the last save, used to catch up on the ticks we missed while our chunk was unloaded
+    private long savedGameTime = -1;
+
+    private LazyOptional<IItemHandler> lazyItemHandler = LazyOptional.empty();
+    private LazyOptional<IEnergyStorage> lazyEnergyHandler = LazyOptional.empty();
+    private LazyOptional<IFluidHandler> lazyFluidHandler = LazyOptional.empty();
+
+    protected AbstractMachineBlockEntity(BlockEntityType<?> type, BlockPos pos, BlockState state,
+                                         String name, int slots, int maxProgress) {
+        super(type, pos, state);
+        this.name = name;
+        this.maxProgress = maxProgress;
+        this.baseMaxProgress = maxProgress;
+        this.defaultMaxProgress = maxProgress;
+        this.tickBucket = MachineTickScheduler.bucketFor(pos);
+        this.itemHandler = new ItemStackHandler(slots) {
+            @Override
+            protected void onContentsChanged(int slot) {
+                onInventoryChanged(slot);
+            }
+
+            @Override
+            public boolean isItemValid(int slot, @NotNull ItemStack stack) {
+                return AbstractMachineBlockEntity.this.isItemValid(slot, stack);
+            }
+        };
+        this.upgradeHandler = new ItemStackHandler(UPGRADE_SLOTS) {
+            @Override
+            protected void onContentsChanged(int slot) {
+                onUpgradesChanged();
+            }
+
+            @Override
+            public boolean isItemValid(int slot, @NotNull ItemStack stack) {
+                return stack.getItem() instanceof MachineUpgradeItem;
+            }
+        };
+        // Exact energy and fluid for the players with our menu open, split into the 16 bits a data slot carries.
+        // Progress doesn't go through here, the client predicts it from the machine sync.
+        this.data = new ContainerData() {
+            private final int[] values = new int[DATA_SLOTS];
+
+            @Override
+            public int get(int index) {
+                int energy = energyStorage != null ? energyStorage.getEnergyStored() : 0;
+                int amount = fluidTank != null ? fluidTank.getFluidAmount() : 0;
+                return switch (index) {
+                    case 0 -> energy & 0xFFFF;
+                    case 1 -> energy >>> 16;
+                    case 2 -> amount & 0xFFFF;
+                    case 3 -> amount >>> 16;
+                    case 4 -> fluidTank != null ? BuiltInRegistries.FLUID.getId(fluidTank.getFluid().getFluid()) : 0;
+                    default -> 0;
+                };
+            }
+
+            @Override
+            public void set(int index, int value) {
+                // Client side, the halves arrive one slot at a time
+                values[index] = value & 0xFFFF;
+                if (energyStorage != null) {
+                    energyStorage.setEnergy(values[0] | values[1] << 16);
+                }
+                if (fluidTank != null) {
+                    setClientFluid(BuiltInRegistries.FLUID.byId(values[4]), values[2] | values[3] << 16);
+                }
+            }
+
+            @Override
+            public int getCount() {
+                return DATA_SLOTS;
+            }
+        };
+    }
+
+    protected void withEnergyStorage(int capacity, int maxTransfer, int energyPerTick) {
+        this.energyPerTick = energyPerTick;
+        this.baseEnergyPerTick = energyPerTick;
+        this.defaultEnergyPerTick = energyPerTick;
+        this.energyStorage = new BmbcEnergyStorage(capacity, maxTransfer) {
+            @Override
+            public void onEnergyChanged() {
+                AbstractMachineBlockEntity.this.onEnergyChanged();
+            }
+        };
+    }
+
+    protected void withFluidTank(int capacity, int sourceSlot, Predicate<FluidStack> validator) {
+        this.fluidSourceSlot = sourceSlot;
+        this.fluidTank = new FluidTank(capacity, validator) {
+            @Override
+            protected void onContentsChanged() {
+                onFluidChanged();
+            }
+        };
+    }
+
+    /* PROCESSING STAGES */
+
+    protected abstract boolean hasRecipe();
+
+    protected abstract void craftItem(int count);
+
+    /**
+     * @return how many crafts in a row the current inputs, output space and fluid allow, 0 without a recipe
+     */
+    protected abstract int getMaxCrafts();
+
+    /**
+     * @return true if the next {@link #hasRecipe()} has to resolve a recipe instead of using a cached one
+     */
+    protected boolean isRecipeLookupStale() {
+        return false;
+    }
+
+    /**
+     * @return the recipe the last {@link #hasRecipe()} resolved, if the machine runs {@link MachineRecipe}s. Its
+     * duration and energy replace the machine's defaults.
+     */
+    @Nullable
+    protected MachineRecipe getCurrentRecipe() {
+        return null;
+    }
+
+    protected boolean isItemValid(int slot, ItemStack stack) {
+        return true;
+    }
+
+    @Nullable
+    protected BooleanProperty getActiveProperty() {
+        return null;
+    }
+
+    /**
+     * @return true if any energy was received this tick
+     */
+    protected boolean receiveEnergyFromItems() {
+        return false;
+    }
+
+    protected void onInventoryChanged(int slot) {
+        markDirty();
+        wake();
+    }
+
+    protected void onUpgradesChanged() {
+        updateUpgrades();
+        markDirty();
+        wake();
+    }
+
+    private void updateUpgrades() {
+        modifiers = MachineModifiers.of(upgradeHandler);
+        applyModifiers();
+    }
+
+    private void updateRecipeCosts() {
+        MachineRecipe recipe = getCurrentRecipe();
+        int duration = recipe != null && recipe.getDuration() > 0 ? recipe.getDuration() : defaultMaxProgress;
+        int energy = recipe != null && recipe.getEnergyPerTick() > 0 ? recipe.getEnergyPerTick() : defaultEnergyPerTick;
+        if (duration != baseMaxProgress || energy != baseEnergyPerTick) {
+            baseMaxProgress = duration;
+            baseEnergyPerTick = energy;
+            applyModifiers();
+        }
+    }
+
+    private void applyModifiers() {
+        maxProgress = modifiers.getMaxProgress(baseMaxProgress);
+        markSyncDirty(MachineSyncS2CPacket.STATE);
+        energyPerTick = modifiers.getEnergyPerTick(baseEnergyPerTick);
+        parallel = modifiers.getParallel();
+    }
+
+    public MachineModifiers getModifiers() {
+        return modifiers;
+    }
+
+    protected void onEnergyChanged() {
+        markDirty();
+        markSyncDirty(MachineSyncS2CPacket.ENERGY);
+        wake();
+    }
+
+    protected void onFluidChanged() {
+        markDirty();
+        markSyncDirty(MachineSyncS2CPacket.FLUID_AMOUNT | MachineSyncS2CPacket.FLUID_TYPE);
+        wake();
+    }
+
+    public static void tick(Level level, BlockPos pos, BlockState state, AbstractMachineBlockEntity entity) {
+        if (level.isClientSide()) {
+            return;
+        }
+
+        entity.serverTick(level, pos, state);
+    }
+
+    protected void serverTick(Level level, BlockPos pos, BlockState state) {
+        // A datapack reload swaps the RecipeManager and the recipe index, and may have added a recipe for our inputs
+        if (sleeping && level.getRecipeManager() == sleepingRecipeManager && !isRecipeLookupStale()) {
+            return;
+        }
+        sleeping = false;
+        ticking = true;
+
+        if (savedGameTime >= 0) {
+            catchUp(level.getGameTime() - savedGameTime);
+            savedGameTime = -1;
+        }
+
+        boolean working = false;
+        if (energyStorage != null) {
+            working = receiveEnergyFromItems();
+        }
+
+        boolean wasRunning = progressRunning;
+        progressRunning = false;
+
+        boolean resolving = isRecipeLookupStale();
+        if (resolving && !MachineTickScheduler.canRunCritical(level, tickBucket)) {
+            // Out of budget to resolve the recipe this tick. A running cycle keeps going on the recipe it started
+            // with, only finishing it or starting the next one waits for the budget.
+            working = true;
+            if (wasRunning && progress > 0 && progress < maxProgress && hasEnoughEnergy()) {
+                progress++;
+                consumeEnergy();
+                markDirty();
+                progressRunning = true;
+            } else {
+                // Waiting to finish or start a cycle isn't a stall, don't make the clients stop predicting
+                progressRunning = wasRunning && (progress == 0 || progress >= maxProgress);
+            }
+        } else {
+            long start = resolving ? System.nanoTime() : 0;
+            boolean crafting = hasRecipe();
+            if (crafting) {
+                updateRecipeCosts();
+            }
+            if (crafting && progress == 0) {
+                batchSize = getBatchSize();
+            }
+            crafting = crafting && hasEnoughEnergy();
+            if (resolving) {
+                MachineTickScheduler.charge(level, System.nanoTime() - start);
+            }
+
+            if (crafting) {
+                working = true;
+
+                progress++;
+                progressRunning = true;
+                consumeEnergy();
+                markDirty();
+
+                if (progress >= maxProgress) {
+                    // Inputs may have been taken out mid-cycle
+                    craftItem(Math.max(Math.min(batchSize, getMaxCrafts()), 1));
+                    resetProgress();
+                }
+            } else if (progress != 0) {
+                resetProgress();
+                markDirty();
+            }
+
+            // Stay awake until a pending switch-off has gone through
+            working |= updateActiveState(level, pos, state, crafting);
+        }
+
+        // Start and stall, the client predicts the ticks in between
+        if (progressRunning != wasRunning) {
+            markSyncDirty(MachineSyncS2CPacket.PROGRESS);
+        }
+
+        if (fluidTank != null && hasFluidItemInSourceSlot()) {
+            if (MachineTickScheduler.canRunDeferrable(level, tickBucket)) {
+                working |= transferItemFluidToFluidTank();
+            } else {
+                working = true;
+            }
+        }
+
+        ticking = false;
+        if (dirty) {
+            dirty = false;
+            setChanged(level, pos, state);
+        }
+        if (syncDirty != 0) {
+            MachineSyncS2CPacket sync = createSync(syncDirty & ~VIEWER_SYNC_FIELDS);
+            MachineSyncS2CPacket viewerSync = createSync(syncDirty & VIEWER_SYNC_FIELDS);
+            syncDirty = 0;
+            if (level instanceof ServerLevel serverLevel) {
+                if (sync != null) {
+                    MachineSyncBundler.queue(serverLevel, sync);
+                }
+                if (viewerSync != null) {
+                    sendToViewers(serverLevel, viewerSync);
+                }
+            }
+        }
+
+        if (!working) {
+            sleep(level);
+        }
+    }
+
+    /**
+     * Runs the crafts that would have finished while the chunk was unloaded in one step, bounded by the inputs,
+     * the output space and the stored energy. No energy or fluid is received while unloaded.
+     */
+    private void catchUp(long elapsed) {
+        if (elapsed <= 0 || maxProgress <= 0) {
+            return;
+        }
+
+        int maxCrafts = getMaxCrafts();
+        if (maxCrafts <= 0) {
+            return;
+        }
+        updateRecipeCosts();
+
+        long ticks = progress + elapsed;
+        long byTime = ticks / maxProgress * parallel;
+        long crafts = Math.min(maxCrafts, byTime);
+        long energyPerCraft = (long) energyPerTick * maxProgress;
+        long energyPaid = (long) energyPerTick * batchSize * progress;
+        if (energyStorage != null && energyPerCraft > 0) {
+            crafts = Math.min(crafts, (energyStorage.getEnergyStored() + energyPaid) / energyPerCraft);
+        }
+
+        // If time ran out mid-cycle the rest carries over into the next one
+        long leftover = crafts == byTime && crafts < maxCrafts ? ticks % maxProgress : 0;
+        int nextBatch = (int) Math.max(Math.min(parallel, maxCrafts - crafts), 1);
+        if (energyStorage != null && energyPerCraft > 0) {
+            long energyForCrafts = crafts * energyPerCraft - energyPaid;
+            if (energyStorage.getEnergyStored() - energyForCrafts < energyPerCraft * nextBatch) {
+                leftover = 0; // the next cycle couldn't finish anyway
+            }
+            useEnergy(energyForCrafts + (long) energyPerTick * nextBatch * leftover);
+        }
+
+        if (crafts > 0) {
+            craftItem((int) crafts);
+        }
+        batchSize = nextBatch;
+        progress = (int) Math.max(leftover, 0);
+        markDirty();
+        markSyncDirty(MachineSyncS2CPacket.PROGRESS);
+    }
+
+    /**
+     * Flags the machine as needing a save. Outside our own tick (hoppers, players, pipes) this saves right away.
+     */
+    protected void markDirty() {
+        if (ticking) {
+            dirty = true;
+        } else {
+            setChanged();
+        }
+    }
+
+    private void sleep(Level level) {
+        sleeping = true;
+        sleepingRecipeManager = level.getRecipeManager();
+    }
+
+    public void wake() {
+        sleeping = false;
+    }
+
+    public boolean isSleeping() {
+        return sleeping;
+    }
+
+    private boolean updateActiveState(Level level, BlockPos pos, BlockState state, boolean crafting) {
+        if (activeState == null) {
+            BooleanProperty property = getActiveProperty();
+            if (property == null) {
+                return false;
+            }
+            activeState = new ActiveStateController(property);
+        }
+
+        return activeState.update(level, pos, state, crafting);
+    }
+
+    protected void resetProgress() {
+        this.progress = 0;
+        markSyncDirty(MachineSyncS2CPacket.PROGRESS);
+    }
+
+    /* ENERGY */
+
+    /**
+     * @return how many crafts the cycle that is about to start runs, limited by upgrades, inputs and stored energy
+     */
+    private int getBatchSize() {
+        int batch = parallel > 1 ? Math.min(parallel, getMaxCrafts()) : 1;
+        if (energyStorage != null && energyPerTick > 0) {
+            batch = (int) Math.min(batch, energyStorage.getEnergyStored() / ((long) energyPerTick * maxProgress));
+        }
+        return Math.max(batch, 1);
+    }
+
+    private boolean hasEnoughEnergy() {
+        // Only start or continue a craft if there is enough stored to finish it
+        return energyStorage == null
+                || energyStorage.getEnergyStored() >= (long) energyPerTick * batchSize * (maxProgress - progress);
+    }
+
+    private void consumeEnergy() {
+        useEnergy((long) energyPerTick * batchSize);
+    }
+
+    /**
+     * Takes energy for the machine's own use. Unlike extractEnergy this isn't capped at the transfer rate.
+     */
+    private void useEnergy(long amount) {
+        if (energyStorage != null && amount > 0) {
+            energyStorage.setEnergy((int) Math.max(energyStorage.getEnergyStored() - amount, 0));
+            onEnergyChanged();
+        }
+    }
+
+    @Nullable
+    public IEnergyStorage getEnergyStorage() {
+        return energyStorage;
+    }
+
+    public void setEnergyLevel(int energy) {
+        if (energyStorage != null) {
+            energyStorage.setEnergy(energy);
+        }
+    }
+
+    /* FLUID */
+
+    private boolean hasFluidItemInSourceSlot() {
+        return !itemHandler.getStackInSlot(fluidSourceSlot).isEmpty();
+    }
+
+    private boolean transferItemFluidToFluidTank() {
+        IFluidHandlerItem handler = itemHandler.getStackInSlot(fluidSourceSlot)
+                .getCapability(ForgeCapabilities.FLUID_HANDLER_ITEM).orElse(null);
+        if (handler == null) {
+            return false;
+        }
+
+        int drainAmount = Math.min(fluidTank.getSpace(), 1000); // get a 1000 out of a tank
+
+        FluidStack stack = handler.drain(drainAmount, IFluidHandler.FluidAction.SIMULATE);
+        if (stack.isEmpty() || !fluidTank.isFluidValid(stack)) {
+            return false;
+        }
+
+        stack = handler.drain(drainAmount, IFluidHandler.FluidAction.EXECUTE);
+        fillTankWithFluid(stack, handler.getContainer());
+        return true;
+    }
+
+    private void fillTankWithFluid(FluidStack stack, ItemStack container) {
+        fluidTank.fill(stack, IFluidHandler.FluidAction.EXECUTE);
+
+        itemHandler.extractItem(fluidSourceSlot, 1, false); // remove the bucket
+        itemHandler.insertItem(fluidSourceSlot, container, false); // swap for empty bucket or show less if using tank from different mod
+    }
+
+    public void setFluid(FluidStack stack) {
+        if (fluidTank != null) {
+            fluidTank.setFluid(stack);
+        }
+    }
+
+    public FluidStack getFluidStack() {
+        return fluidTank != null ? fluidTank.getFluid() : FluidStack.EMPTY;
+    }
+
+    /* SYNC */
+
+    /**
+     * Queues fields for the end-of-tick sync. Changes from outside our tick wake the machine, so they go out on
+     * its next tick.
+     */
+    protected void markSyncDirty(int fields) {
+        syncDirty |= fields;
+    }
+
+    /**
+     * Builds the packet for the given fields and moves the baseline forward, so the caller must send it to all the
+     * trackers. Returns null if nothing actually changed.
+     */
+    @Nullable
+    private MachineSyncS2CPacket createSync(int fields) {
+        int flags = 0;
+        int energy = 0, fluidAmount = 0;
+        Fluid fluid = Fluids.EMPTY;
+        boolean quantized = ModCommonConfigs.MACHINE_QUANTIZED_SYNC.get();
+        if ((fields & MachineSyncS2CPacket.ENERGY) != 0 && energyStorage != null
+                && energyStorage.getEnergyStored() != syncedEnergy
+                && (!quantized || gaugeChanged(syncedEnergy, energyStorage.getEnergyStored(), energyStorage.getMaxEnergyStored(), ENERGY_SYNC_STEPS))) {
+            flags |= MachineSyncS2CPacket.ENERGY;
+            energy = energyStorage.getEnergyStored() - syncedEnergy;
+            syncedEnergy = energyStorage.getEnergyStored();
+        }
+        if ((fields & MachineSyncS2CPacket.FLUID_AMOUNT) != 0 && fluidTank != null
+                && (!quantized || fluidTank.getFluid().getFluid() != syncedFluid
+                || gaugeChanged(syncedFluidAmount, fluidTank.getFluidAmount(), fluidTank.getCapacity(), FLUID_SYNC_STEPS))) {
+            fluid = fluidTank.getFluid().getFluid();
+            fluidAmount = fluidTank.getFluidAmount() - syncedFluidAmount;
+            flags |= fluidAmount != 0 ? MachineSyncS2CPacket.FLUID_AMOUNT : 0;
+            flags |= fluid != syncedFluid ? MachineSyncS2CPacket.FLUID_TYPE : 0;
+            syncedFluidAmount = fluidTank.getFluidAmount();
+            syncedFluid = fluid;
+        }
+        if ((fields & MachineSyncS2CPacket.PROGRESS) != 0) {
+            flags |= MachineSyncS2CPacket.PROGRESS | (progressRunning ? MachineSyncS2CPacket.RUNNING : 0);
+        }
+        if ((fields & MachineSyncS2CPacket.STATE) != 0) {
+            flags |= MachineSyncS2CPacket.STATE;
+        }
+
+        return flags == 0 ? null : new MachineSyncS2CPacket(worldPosition, flags, energy, fluidAmount, fluid,
+                progress, maxProgress);
+    }
+
+    private void sendToViewers(ServerLevel level, MachineSyncS2CPacket sync) {
+        for (ServerPlayer player : level.getChunkSource().chunkMap.getPlayers(new ChunkPos(worldPosition), false)) {
+            if (player.containerMenu instanceof MachineMenu menu && menu.getBlockEntity() == this) {
+                ModNetworkingPackets.sendToPlayer(sync, player);
+            }
+        }
+    }
+
+    /**
+     * Brings a player who just opened our menu up to date on progress, which isn't synced while nobody is viewing.
+     */
+    public void sendProgressTo(ServerPlayer player) {
+        ModNetworkingPackets.sendToPlayer(createSync(VIEWER_SYNC_FIELDS), player);
+    }
+
+    private static boolean gaugeChanged(int synced, int current, int capacity, int steps) {
+        if (capacity <= 0) {
+            return synced != current;
+        }
+        // Empty and full are always exact, a gauge that reads full while it isn't looks wrong
+        if (current == 0 || current == capacity) {
+            return true;
+        }
+        return (long) synced * steps / capacity != (long) current * steps / capacity;
+    }
+
+    /**
+     * @param viewing whether the local player has our menu open. Such a player gets exact values through the menu's
+     *                data slots, so tracker updates only move the baseline.
+     */
+    public void handleSync(MachineSyncS2CPacket packet, boolean viewing) {
+        if (packet.has(MachineSyncS2CPacket.ENERGY) && energyStorage != null) {
+            syncedEnergy += packet.getEnergy();
+            if (!viewing) {
+                energyStorage.setEnergy(syncedEnergy);
+            }
+        }
+        if (fluidTank != null && (packet.has(MachineSyncS2CPacket.FLUID_AMOUNT) || packet.has(MachineSyncS2CPacket.FLUID_TYPE))) {
+            if (packet.has(MachineSyncS2CPacket.FLUID_TYPE)) {
+                syncedFluid = packet.getFluid();
+            }
+            if (packet.has(MachineSyncS2CPacket.FLUID_AMOUNT)) {
+                syncedFluidAmount += packet.getFluidAmount();
+            }
+            if (!viewing) {
+                setClientFluid(syncedFluid, syncedFluidAmount);
+            }
+        }
+        if (packet.has(MachineSyncS2CPacket.PROGRESS)) {
+            progress = packet.getProgress();
+            progressRunning = packet.isRunning();
+            progressSyncTime = level.getGameTime();
+        }
+        if (packet.has(MachineSyncS2CPacket.STATE)) {
+            maxProgress = packet.getMaxProgress();
+        }
+    }
+
+    private void setClientFluid(Fluid fluid, int amount) {
+        fluidTank.setFluid(fluid == Fluids.EMPTY || amount <= 0 ? FluidStack.EMPTY : new FluidStack(fluid, amount));
+    }
+
+    /**
+     * Client side, the progress as of now, advanced locally from the last sync while the machine is running.
+     */
+    public int getPredictedProgress() {
+        if (!progressRunning || level == null) {
+            return progress;
+        }
+        return (int) Math.min(progress + Math.max(level.getGameTime() - progressSyncTime, 0), maxProgress);
+    }
+
+    public int getMaxProgress() {
+        return maxProgress;
+    }
+
+    /**
+     * A small subset of our state for the chunk data, so clients see full tanks and running machines without waiting
+     * for a change. Energy and fluid are the tracker baseline, the deltas that follow are relative to it.
+     */
+    @Override
+    public CompoundTag getUpdateTag() {
+        CompoundTag tag = new CompoundTag();
+        if (energyStorage != null) {
+            tag.putInt("energy", syncedEnergy);
+        }
+        if (fluidTank != null && syncedFluid != Fluids.EMPTY) {
+            tag.putString("fluid", ForgeRegistries.FLUIDS.getKey(syncedFluid).toString());
+            tag.putInt("amount", syncedFluidAmount);
+        }
+        tag.putInt("progress", progress);
+        tag.putInt("maxProgress", maxProgress);
+        tag.putBoolean("running", progressRunning);
+        return tag;
+    }
+
+    @Override
+    public void handleUpdateTag(CompoundTag tag) {
+        if (energyStorage != null) {
+            syncedEnergy = tag.getInt("energy");
+            energyStorage.setEnergy(syncedEnergy);
+        }
+        if (fluidTank != null) {
+            syncedFluid = tag.contains("fluid") ? ForgeRegistries.FLUIDS.getValue(new ResourceLocation(tag.getString("fluid"))) : Fluids.EMPTY;
+            syncedFluidAmount = tag.getInt("amount");
+            setClientFluid(syncedFluid, syncedFluidAmount);
+        }
+        progress = tag.getInt("progress");
+        maxProgress = tag.getInt("maxProgress");
+        progressRunning = tag.getBoolean("running");
+        progressSyncTime = level != null ? level.getGameTime() : 0;
+    }
+
+    @Nullable
+    @Override
+    public Packet<ClientGamePacketListener> getUpdatePacket() {
+        return ClientboundBlockEntityDataPacket.create(this);
+    }
+
+    @Override
+    public void onDataPacket(Connection connection, ClientboundBlockEntityDataPacket packet) {
+        if (packet.getTag() != null) {
+            handleUpdateTag(packet.getTag());
+        }
+    }
+
+    /* OUTPUT */
+
+    protected boolean canInsertIntoOutputSlot(int slot, Item item) {
+        ItemStack output = itemHandler.getStackInSlot(slot);
+        return output.isEmpty() || (output.getItem() == item && output.getCount() < output.getMaxStackSize());
+    }
+
+    protected int getOutputSpace(int slot, Item item) {
+        ItemStack output = itemHandler.getStackInSlot(slot);
+        if (output.isEmpty()) {
+            return Math.min(item.getMaxStackSize(), itemHandler.getSlotLimit(slot));
+        }
+
+        return output.getItem() == item ? output.getMaxStackSize() - output.getCount() : 0;
+    }
+
+    protected void insertIntoOutputSlot(int slot, Item item, int count) {
+        itemHandler.setStackInSlot(slot, new ItemStack(item, itemHandler.getStackInSlot(slot).getCount() + count));
+    }
+
+    /**
+     * @return how many crafts of the recipe the output slots have room for
+     */
+    protected int getOutputSpace(MachineRecipe recipe) {
+        return recipe.getOutputPlan().getMaxCrafts(itemHandler);
+    }
+
+    protected boolean canInsertOutputs(MachineRecipe recipe) {
+        return recipe.getOutputPlan().canInsert(itemHandler);
+    }
+
+    protected void insertOutputs(MachineRecipe recipe, int crafts) {
+        recipe.getOutputPlan().insert(itemHandler, crafts, level.getRandom());
+    }
+
+    /* CAPABILITIES */
+
+    @Override
+    public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
+        if (cap == ForgeCapabilities.ITEM_HANDLER) {
+            return lazyItemHandler.cast();
+        }
+
+        if (cap == ForgeCapabilities.ENERGY && energyStorage != null) {
+            return lazyEnergyHandler.cast();
+        }
+
+        if (cap == ForgeCapabilities.FLUID_HANDLER && fluidTank != null) {
+            return lazyFluidHandler.cast();
+        }
+
+        return super.getCapability(cap, side);
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        lazyItemHandler = LazyOptional.of(() -> itemHandler);
+        if (energyStorage != null) {
+            lazyEnergyHandler = LazyOptional.of(() -> energyStorage);
+        }
+        if (fluidTank != null) {
+            lazyFluidHandler = LazyOptional.of(() -> fluidTank);
+        }
+
+        // Nobody has our chunk yet, they all start from what we hold right now
+        if (level != null && !level.isClientSide()) {
+            syncedEnergy = energyStorage != null ? energyStorage.getEnergyStored() : 0;
+            syncedFluidAmount = fluidTank != null ? fluidTank.getFluidAmount() : 0;
+            syncedFluid = fluidTank != null ? fluidTank.getFluid().getFluid() : Fluids.EMPTY;
+        }
+    }
+
+    @Override
+    public void invalidateCaps() {
+        super.invalidateCaps();
+        lazyItemHandler.invalidate();
+        lazyEnergyHandler.invalidate();
+        lazyFluidHandler.invalidate();
+    }
+
+    /* NBT */
+
+    @Override
+    protected void saveAdditional(CompoundTag nbt) {
+        nbt.put("inventory", itemHandler.serializeNBT());
+        nbt.put("upgrades", upgradeHandler.serializeNBT());
+        nbt.putInt(name + ".progress", this.progress);
+        nbt.putInt(name + ".batch", this.batchSize);
+        if (level != null) {
+            nbt.putLong(name + ".gameTime", level.getGameTime());
+        }
+        if (energyStorage != null) {
+            nbt.putInt(name + ".energy", energyStorage.getEnergyStored());
+        }
+        if (fluidTank != null) {
+            fluidTank.writeToNBT(nbt);
+        }
+
+        super.saveAdditional(nbt);
+    }
+
+    @Override
+    public void load(CompoundTag nbt) {
+        super.load(nbt);
+        itemHandler.deserializeNBT(nbt.getCompound("inventory"));
+        upgradeHandler.deserializeNBT(nbt.getCompound("upgrades"));
+        updateUpgrades();
+        progress = nbt.getInt(name + ".progress");
+        batchSize = Math.max(nbt.getInt(name + ".batch"), 1);
+        if (nbt.contains(name + ".gameTime")) {
+            savedGameTime = nbt.getLong(name + ".gameTime");
+        }
+        if (energyStorage != null) {
+            energyStorage.setEnergy(nbt.getInt(name + ".energy"));
+        }
+        if (fluidTank != null) {
+            fluidTank.readFromNBT(nbt);
+        }
+    }
+
+    /**
+     * The data slots for the client side of a menu. They write through to the block entity, so the screen reads exact
+     * values from it like the server does.
+     */
+    public static ContainerData getMenuData(@Nullable BlockEntity entity) {
+        return entity instanceof AbstractMachineBlockEntity machine ? machine.data : new SimpleContainerData(DATA_SLOTS);
+    }
+
+    public ItemStackHandler getUpgradeHandler() {
+        return upgradeHandler;
+    }
+
+    public void drops() {
+        SimpleContainer inventory = new SimpleContainer(itemHandler.getSlots() + upgradeHandler.getSlots());
+        for (int i = 0; i < itemHandler.getSlots(); i++) {
+            inventory.setItem(i, itemHandler.getStackInSlot(i));
+        }
+        for (int i = 0; i < upgradeHandler.getSlots(); i++) {
+            inventory.setItem(itemHandler.getSlots() + i, upgradeHandler.getStackInSlot(i));
+        }
+
+        Containers.dropContents(this.level, this.worldPosition, inventory);
+    }
+}
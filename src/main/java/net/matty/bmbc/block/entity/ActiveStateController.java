@@ -0,0 +1,47 @@
+package net.matty.bmbc.block.entity;
+
+import net.matty.bmbc.config.ModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.BooleanProperty;
+
+/**
+ * Debounces a machine's ACTIVE blockstate. Switching on happens right away, switching off only after the machine
+ * has been idle for {@link ModCommonConfigs#MACHINE_ACTIVE_IDLE_TICKS}, so a machine that runs out of input between
+ * crafts doesn't cause a block update, relight and update packet every few ticks.
+ */
+public class ActiveStateController {
+    private final BooleanProperty property;
+    private int idleTicks = 0;
+
+    public ActiveStateController(BooleanProperty property) {
+        this.property = property;
+    }
+
+    /**
+     * @return true while the machine is idle but still showing as active
+     */
+    public boolean update(Level level, BlockPos pos, BlockState state, boolean working) {
+        boolean active = state.getValue(property);
+        if (working) {
+            idleTicks = 0;
+            if (!active) {
+                level.setBlock(pos, state.setValue(property, true), 3);
+            }
+            return false;
+        }
+
+        if (!active) {
+            return false;
+        }
+
+        if (++idleTicks < ModCommonConfigs.MACHINE_ACTIVE_IDLE_TICKS.get()) {
+            return true;
+        }
+
+        idleTicks = 0;
+        level.setBlock(pos, state.setValue(property, false), 3);
+        return false;
+    }
+}
@@ -2,67 +2,17 @@ package net.matty.bmbc.block.entity;
 
 import net.matty.bmbc.screen.BiomassGeneratorMenu;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
-import net.minecraft.world.Containers;
-import net.minecraft.world.MenuProvider;
-import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
-import net.minecraft.world.inventory.ContainerData;
 import net.minecraft.world.item.Items;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraftforge.common.capabilities.Capability;
-import net.minecraftforge.common.capabilities.ForgeCapabilities;
-import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemStackHandler;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public class BiomassGeneratorBlockEntity extends BlockEntity implements MenuProvider {
-    private final ItemStackHandler itemHandler = new ItemStackHandler(4) {
-        @Override
-        protected void onContentsChanged(int slot) {
-            setChanged();
-        }
-    };
-
-    private LazyOptional<IItemHandler> lazyItemHandler = LazyOptional.empty();
-
-    protected final ContainerData data;
-    private int progress = 0;
-    private int maxProgress = 120;//24000;
-
+public class BiomassGeneratorBlockEntity extends AbstractMachineBlockEntity {
     public BiomassGeneratorBlockEntity(BlockPos pos, BlockState state) {
-        super(ModBlockEntities.BIOMASS_GENERATOR.get(), pos, state);
-        this.data = new ContainerData() {
-            @Override
-            public int get(int index) {
-                return switch (index) {
-                    case 0 -> BiomassGeneratorBlockEntity.this.progress;
-                    case 1 -> BiomassGeneratorBlockEntity.this.maxProgress;
-                    default -> 0;
-                };
-            }
-
-            @Override
-            public void set(int index, int value) {
-                switch (index) {
-                    case 0 -> BiomassGeneratorBlockEntity.this.progress = value;
-                    case 1 -> BiomassGeneratorBlockEntity.this.maxProgress = value;
-                }
-            }
-
-            @Override
-            public int getCount() {
-                return 2;
-            }
-        };
+        super(ModBlockEntities.BIOMASS_GENERATOR.get(), pos, state, "biomass_generator", 4, 120);
     }
 
     @Override
@@ -77,91 +27,18 @@ public class BiomassGeneratorBlockEntity extends BlockEntity implements MenuProv
     }
 
     @Override
-    public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
-        if (cap == ForgeCapabilities.ITEM_HANDLER) {
-            return lazyItemHandler.cast();
-        }
-
-        return super.getCapability(cap, side);
-    }
-
-    @Override
-    public void onLoad() {
-        super.onLoad();
-        lazyItemHandler = LazyOptional.of(() -> itemHandler);
-    }
-
-    @Override
-    public void invalidateCaps() {
-        super.invalidateCaps();
-        lazyItemHandler.invalidate();
+    protected void craftItem(int count) {
+        itemHandler.extractItem(0, count, false);
     }
 
     @Override
-    protected void saveAdditional(CompoundTag nbt) {
-        nbt.put("inventory", itemHandler.serializeNBT());
-        nbt.putInt("biomass_generator.progress", this.progress);
-
-        super.saveAdditional(nbt);
+    protected int getMaxCrafts() {
+        return hasRecipe() ? itemHandler.getStackInSlot(0).getCount() : 0;
     }
 
     @Override
-    public void load(CompoundTag nbt) {
-        super.load(nbt);
-        itemHandler.deserializeNBT(nbt.getCompound("inventory"));
-        progress = nbt.getInt("biomass_generator.progress");
-    }
-
-    public void drops() {
-        SimpleContainer inventory = new SimpleContainer(itemHandler.getSlots());
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
-            inventory.setItem(i, itemHandler.getStackInSlot(i));
-        }
-
-        Containers.dropContents(this.level, this.worldPosition, inventory);
-    }
-
-    public static void tick(Level level, BlockPos pos, BlockState state, BiomassGeneratorBlockEntity pEntity) {
-        if (level.isClientSide()) {
-            return;
-        }
-
-        if(hasFuel(pEntity)) {
-            pEntity.progress++;
-            setChanged(level, pos, state);
-
-            if(pEntity.progress >= pEntity.maxProgress) {
-                craftItem(pEntity);
-            }
-
-        } else {
-            pEntity.resetProgress();
-            setChanged(level, pos, state);
-        }
-    }
-
-    private void resetProgress() {
-        this.progress = 0;
-    }
-
-    private static void craftItem(BiomassGeneratorBlockEntity pEntity) {
-
-        if(hasFuel(pEntity)) {
-            pEntity.itemHandler.extractItem(0, 1, false);
-            pEntity.resetProgress();
-        }
-    }
-
-    private static boolean hasFuel(BiomassGeneratorBlockEntity entity) {
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
-        }
-
-
-        boolean hasFuelInSlot = entity.itemHandler.getStackInSlot(0).getItem() == Items.OAK_LEAVES;
-
-        return hasFuelInSlot;
+    protected boolean hasRecipe() {
+        return itemHandler.getStackInSlot(0).getItem() == Items.OAK_LEAVES;
     }
 }
 
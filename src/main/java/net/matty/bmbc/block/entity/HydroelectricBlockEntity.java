@@ -1,97 +1,22 @@
 package net.matty.bmbc.block.entity;
 
 import net.matty.bmbc.fluid.ModFluids;
-import net.matty.bmbc.networking.ModNetworkingPackets;
-import net.matty.bmbc.networking.packet.FluidSyncS2CPacket;
 import net.matty.bmbc.screen.HydroelectricPlantMenu;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
-import net.minecraft.world.Containers;
-import net.minecraft.world.MenuProvider;
-import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
-import net.minecraft.world.inventory.ContainerData;
-import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.Fluids;
-import net.minecraftforge.common.capabilities.Capability;
-import net.minecraftforge.common.capabilities.ForgeCapabilities;
-import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fluids.capability.IFluidHandler;
-import net.minecraftforge.fluids.capability.templates.FluidTank;
-import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemStackHandler;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public class HydroelectricBlockEntity extends BlockEntity implements MenuProvider {
-    private final ItemStackHandler itemHandler = new ItemStackHandler(3) {
-        @Override
-        protected void onContentsChanged(int slot) {
-            setChanged();
-        }
-    };
-
-    private LazyOptional<IItemHandler> lazyItemHandler = LazyOptional.empty();
-    private final FluidTank FLUID_TANK = new FluidTank(64000) {
-        @Override
-        protected void onContentsChanged() {
-            setChanged();
-            if (!level.isClientSide()) {
-                ModNetworkingPackets.sendToClients(new FluidSyncS2CPacket(this.fluid, worldPosition));
-            }
-        }
-
-        @Override
-        public boolean isFluidValid(FluidStack stack) {
-            return stack.getFluid() == Fluids.WATER || stack.getFluid() == ModFluids.SOURCE_SODIUM_HYDROXIDE.get();
-        }
-    };
-    public void setFluid(FluidStack stack) {
-        this.FLUID_TANK.setFluid(stack);
-    }
-    public FluidStack getFluidStack() {
-        return this.FLUID_TANK.getFluid();
-    }
-    private LazyOptional<IFluidHandler> lazyFluidHandler = LazyOptional.empty();
-
-    protected final ContainerData data;
-    private int progress = 0;
-    private int maxProgress = 260; // Amount it takes to use one water bucket
-
+public class HydroelectricBlockEntity extends AbstractMachineBlockEntity {
     public HydroelectricBlockEntity(BlockPos pos, BlockState state) {
-        super(ModBlockEntities.HYDROELECTRIC_PLANT.get(), pos, state);
-        this.data = new ContainerData() {
-            @Override
-            public int get(int index) {
-                return switch (index) {
-                    case 0 -> HydroelectricBlockEntity.this.progress;
-                    case 1 -> HydroelectricBlockEntity.this.maxProgress;
-                    default -> 0;
-                };
-            }
-
-            @Override
-            public void set(int index, int value) {
-                switch (index) {
-                    case 0 -> HydroelectricBlockEntity.this.progress = value;
-                    case 1 -> HydroelectricBlockEntity.this.maxProgress = value;
-                }
-            }
-
-            @Override
-            public int getCount() {
-                return 2;
-            }
-        };
+        super(ModBlockEntities.HYDROELECTRIC_PLANT.get(), pos, state, "hydroelectric_plant", 3, 260); // Amount it takes to use one water bucket
+        withFluidTank(64000, 0, stack -> stack.getFluid() == Fluids.WATER || stack.getFluid() == ModFluids.SOURCE_SODIUM_HYDROXIDE.get());
     }
 
     @Override
@@ -102,135 +27,27 @@ public class HydroelectricBlockEntity extends BlockEntity implements MenuProvide
     @Nullable
     @Override
     public AbstractContainerMenu createMenu(int id, Inventory inventory, Player player) {
-        ModNetworkingPackets.sendToClients(new FluidSyncS2CPacket(this.getFluidStack(), worldPosition));
         return new HydroelectricPlantMenu(id, inventory, this, this.data);
     }
 
     @Override
-    public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
-        if (cap == ForgeCapabilities.ITEM_HANDLER) {
-            return lazyItemHandler.cast();
-        }
-
-        if (cap == ForgeCapabilities.FLUID_HANDLER) {
-            return lazyFluidHandler.cast();
-        }
-
-        return super.getCapability(cap, side);
-    }
-
-    @Override
-    public void onLoad() {
-        super.onLoad();
-        lazyItemHandler = LazyOptional.of(() -> itemHandler);
-        lazyFluidHandler = LazyOptional.of(() -> FLUID_TANK);
-    }
-
-    @Override
-    public void invalidateCaps() {
-        super.invalidateCaps();
-        lazyItemHandler.invalidate();
-        lazyFluidHandler.invalidate();
+    protected void craftItem(int count) {
+        fluidTank.drain(500 * count, IFluidHandler.FluidAction.EXECUTE);
+        itemHandler.extractItem(1, count, false);
     }
 
     @Override
-    protected void saveAdditional(CompoundTag nbt) {
-        nbt.put("inventory", itemHandler.serializeNBT());
-        nbt.putInt("hydroelectric_plant.progress", this.progress);
-        nbt = FLUID_TANK.writeToNBT(nbt);
-        super.saveAdditional(nbt);
-    }
-
-    @Override
-    public void load(CompoundTag nbt) {
-        super.load(nbt);
-        itemHandler.deserializeNBT(nbt.getCompound("inventory"));
-        progress = nbt.getInt("hydroelectric_plant.progress");
-        FLUID_TANK.readFromNBT(nbt);
-    }
-
-    public void drops() {
-        SimpleContainer inventory = new SimpleContainer(itemHandler.getSlots());
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
-            inventory.setItem(i, itemHandler.getStackInSlot(i));
+    protected int getMaxCrafts() {
+        if (!hasRecipe()) {
+            return 0;
         }
 
-        Containers.dropContents(this.level, this.worldPosition, inventory);
+        // Crafts past this point would neither drain nor consume anything
+        return Math.max((fluidTank.getFluidAmount() + 499) / 500, itemHandler.getStackInSlot(1).getCount());
     }
 
-    public static void tick(Level level, BlockPos pos, BlockState state, HydroelectricBlockEntity pEntity) {
-        if (level.isClientSide()) {
-            return;
-        }
-
-        if(hasWater(pEntity)) {
-            pEntity.progress++;
-            setChanged(level, pos, state);
-
-            if(pEntity.progress >= pEntity.maxProgress) {
-                generateElectricity(pEntity);
-            }
-
-        } else {
-            pEntity.resetProgress();
-            setChanged(level, pos, state);
-        }
-
-        if (hasFluidItemInSourceSlot(pEntity)) {
-            transferItemFluidToFluidTank(pEntity);
-        }
-    }
-
-    private static void transferItemFluidToFluidTank(HydroelectricBlockEntity pEntity) {
-        pEntity.itemHandler.getStackInSlot(0).getCapability(ForgeCapabilities.FLUID_HANDLER_ITEM).ifPresent(handler -> {
-            int drainAmount = Math.min(pEntity.FLUID_TANK.getSpace(), 1000); // get a 1000 out of a tank
-
-            FluidStack stack = handler.drain(drainAmount, IFluidHandler.FluidAction.SIMULATE);
-            if (pEntity.FLUID_TANK.isFluidValid(stack)) {
-                stack = handler.drain(drainAmount, IFluidHandler.FluidAction.EXECUTE);
-                fillTankWithFluid(pEntity, stack, handler.getContainer());
-            }
-
-        });
-    }
-
-    private static void fillTankWithFluid(HydroelectricBlockEntity pEntity, FluidStack stack, ItemStack container) {
-        pEntity.FLUID_TANK.fill(stack, IFluidHandler.FluidAction.EXECUTE);
-        pEntity.itemHandler.extractItem(0, 1, false); // remove the bucket
-        pEntity.itemHandler.insertItem(0, container, false); // swap for empty bucket or show less if using tank from different mod
-    }
-
-    private static boolean hasFluidItemInSourceSlot(HydroelectricBlockEntity pEntity) {
-        return pEntity.itemHandler.getStackInSlot(0).getCount() > 0;
-    }
-
-    private void resetProgress() {
-        this.progress = 0;
-    }
-
-    private static void generateElectricity(HydroelectricBlockEntity pEntity) {
-        Level level = pEntity.level;
-        SimpleContainer inventory = new SimpleContainer(pEntity.itemHandler.getSlots());
-        for (int i = 0; i < pEntity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, pEntity.itemHandler.getStackInSlot(i));
-        }
-
-        if(hasWater(pEntity)) {
-            pEntity.FLUID_TANK.drain(500, IFluidHandler.FluidAction.EXECUTE);
-            pEntity.itemHandler.extractItem(1, 1, false);
-            pEntity.resetProgress();
-        }
-
-
-    }
-
-    private static boolean hasWater(HydroelectricBlockEntity entity) {
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
-        }
-
-        boolean hasWaterInSlot = entity.itemHandler.getStackInSlot(0).getItem() == Items.WATER_BUCKET;
-        return hasWaterInSlot;
+    @Override
+    protected boolean hasRecipe() {
+        return itemHandler.getStackInSlot(0).getItem() == Items.WATER_BUCKET;
     }
 }
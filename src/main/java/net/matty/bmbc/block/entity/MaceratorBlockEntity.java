@@ -3,67 +3,16 @@ package net.matty.bmbc.block.entity;
 import net.matty.bmbc.item.ModMineralItems;
 import net.matty.bmbc.screen.MaceratorMenu;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
-import net.minecraft.world.Containers;
-import net.minecraft.world.MenuProvider;
-import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
-import net.minecraft.world.inventory.ContainerData;
-import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraftforge.common.capabilities.Capability;
-import net.minecraftforge.common.capabilities.ForgeCapabilities;
-import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemStackHandler;
-import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public class MaceratorBlockEntity extends BlockEntity implements MenuProvider {
-    private final ItemStackHandler itemHandler = new ItemStackHandler(3) {
-        @Override
-        protected void onContentsChanged(int slot) {
-            setChanged();
-        }
-    };
-
-    private LazyOptional<IItemHandler> lazyItemHandler = LazyOptional.empty();
-
-    protected final ContainerData data;
-    private int progress = 0;
-    private int maxProgress = 120;//24000;
-
+public class MaceratorBlockEntity extends AbstractMachineBlockEntity {
     public MaceratorBlockEntity(BlockPos pos, BlockState state) {
-        super(ModBlockEntities.MACERATOR.get(), pos, state);
-        this.data = new ContainerData() {
-            @Override
-            public int get(int index) {
-                return switch (index) {
-                    case 0 -> MaceratorBlockEntity.this.progress;
-                    case 1 -> MaceratorBlockEntity.this.maxProgress;
-                    default -> 0;
-                };
-            }
-
-            @Override
-            public void set(int index, int value) {
-                switch (index) {
-                    case 0 -> MaceratorBlockEntity.this.progress = value;
-                    case 1 -> MaceratorBlockEntity.this.maxProgress = value;
-                }
-            }
-
-            @Override
-            public int getCount() {
-                return 2;
-            }
-        };
+        super(ModBlockEntities.MACERATOR.get(), pos, state, "macerator", 3, 120);
     }
 
     @Override
@@ -78,101 +27,24 @@ public class MaceratorBlockEntity extends BlockEntity implements MenuProvider {
     }
 
     @Override
-    public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
-        if (cap == ForgeCapabilities.ITEM_HANDLER) {
-            return lazyItemHandler.cast();
-        }
-
-        return super.getCapability(cap, side);
-    }
-
-    @Override
-    public void onLoad() {
-        super.onLoad();
-        lazyItemHandler = LazyOptional.of(() -> itemHandler);
+    protected void craftItem(int count) {
+        itemHandler.extractItem(0, count, false);
+        insertIntoOutputSlot(1, ModMineralItems.CRUSHED_BAUXITE.get(), count);
     }
 
     @Override
-    public void invalidateCaps() {
-        super.invalidateCaps();
-        lazyItemHandler.invalidate();
-    }
-
-    @Override
-    protected void saveAdditional(CompoundTag nbt) {
-        nbt.put("inventory", itemHandler.serializeNBT());
-        nbt.putInt("macerator.progress", this.progress);
-
-        super.saveAdditional(nbt);
-    }
-
-    @Override
-    public void load(CompoundTag nbt) {
-        super.load(nbt);
-        itemHandler.deserializeNBT(nbt.getCompound("inventory"));
-        progress = nbt.getInt("macerator.progress");
-    }
-
-    public void drops() {
-        SimpleContainer inventory = new SimpleContainer(itemHandler.getSlots());
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
-            inventory.setItem(i, itemHandler.getStackInSlot(i));
+    protected int getMaxCrafts() {
+        if (itemHandler.getStackInSlot(0).getItem() != ModMineralItems.BAUXITE.get()) {
+            return 0;
         }
 
-        Containers.dropContents(this.level, this.worldPosition, inventory);
+        return Math.min(itemHandler.getStackInSlot(0).getCount(), getOutputSpace(1, ModMineralItems.CRUSHED_BAUXITE.get()));
     }
 
-    public static void tick(Level level, BlockPos pos, BlockState state, MaceratorBlockEntity pEntity) {
-        if (level.isClientSide()) {
-            return;
-        }
-
-        if(hasRecipe(pEntity)) {
-            pEntity.progress++;
-            setChanged(level, pos, state);
-
-            if(pEntity.progress >= pEntity.maxProgress) {
-                craftItem(pEntity);
-            }
-
-        } else {
-            pEntity.resetProgress();
-            setChanged(level, pos, state);
-        }
-    }
-
-    private void resetProgress() {
-        this.progress = 0;
-    }
-
-    private static void craftItem(MaceratorBlockEntity pEntity) {
-
-        if(hasRecipe(pEntity)) {
-            pEntity.itemHandler.extractItem(0, 1, false);
-            pEntity.itemHandler.setStackInSlot(1, new ItemStack(ModMineralItems.CRUSHED_BAUXITE.get(),
-                    pEntity.itemHandler.getStackInSlot(1).getCount() + 1));
-
-            pEntity.resetProgress();
-        }
-    }
-
-    private static boolean hasRecipe(MaceratorBlockEntity entity) {
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
-        }
-
-        boolean hasRockInFirstSlot = entity.itemHandler.getStackInSlot(0).getItem() == ModMineralItems.BAUXITE.get();
-
-        return hasRockInFirstSlot && canInsertAmountIntoOutputSlot(inventory) &&
-                canInsertItemIntoOutputSlot(inventory, new ItemStack(ModMineralItems.CRUSHED_BAUXITE.get(), 1));
-    }
-
-    private static boolean canInsertItemIntoOutputSlot(SimpleContainer inventory, ItemStack stack) {
-        return inventory.getItem(1).getItem() == stack.getItem() || inventory.getItem(1).isEmpty();
-    }
+    @Override
+    protected boolean hasRecipe() {
+        boolean hasRockInFirstSlot = itemHandler.getStackInSlot(0).getItem() == ModMineralItems.BAUXITE.get();
 
-    private static boolean canInsertAmountIntoOutputSlot(SimpleContainer inventory) {
-        return inventory.getItem(1).getMaxStackSize() > inventory.getItem(1).getCount();
+        return hasRockInFirstSlot && canInsertIntoOutputSlot(1, ModMineralItems.CRUSHED_BAUXITE.get());
     }
 }
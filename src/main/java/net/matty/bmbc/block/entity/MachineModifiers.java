@@ -0,0 +1,68 @@
+package net.matty.bmbc.block.entity;
+
+import net.matty.bmbc.item.custom.MachineUpgradeItem;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The combined effect of everything in a machine's upgrade slots. Built once when the upgrade slots change so the
+ * tick loop only reads the already scaled values.
+ */
+public class MachineModifiers {
+    public static final MachineModifiers NONE = new MachineModifiers(1.0F, 1.0F, 1);
+    public static final int MAX_PARALLEL = 16;
+
+    private final float durationFactor;
+    private final float energyFactor;
+    private final int parallel;
+
+    private MachineModifiers(float durationFactor, float energyFactor, int parallel) {
+        this.durationFactor = durationFactor;
+        this.energyFactor = energyFactor;
+        this.parallel = parallel;
+    }
+
+    /**
+     * Each kind of upgrade counts for at most one full stack, however many slots it's spread over, so the factors
+     * stop where a single stack takes them.
+     */
+    public static MachineModifiers of(IItemHandler upgrades) {
+        Map<MachineUpgradeItem, Integer> counts = new IdentityHashMap<>();
+        for (int i = 0; i < upgrades.getSlots(); i++) {
+            ItemStack stack = upgrades.getStackInSlot(i);
+            if (stack.getItem() instanceof MachineUpgradeItem upgrade) {
+                int limit = stack.getMaxStackSize();
+                counts.merge(upgrade, stack.getCount(), (a, b) -> Math.min(a + b, limit));
+            }
+        }
+
+        float durationFactor = 1.0F;
+        float energyFactor = 1.0F;
+        int parallel = 1;
+        for (Map.Entry<MachineUpgradeItem, Integer> entry : counts.entrySet()) {
+            MachineUpgradeItem upgrade = entry.getKey();
+            for (int j = 0; j < entry.getValue(); j++) {
+                durationFactor *= upgrade.getDurationFactor();
+                energyFactor *= upgrade.getEnergyFactor();
+                parallel = Math.min(parallel * upgrade.getParallelFactor(), MAX_PARALLEL);
+            }
+        }
+
+        return new MachineModifiers(durationFactor, energyFactor, Math.max(parallel, 1));
+    }
+
+    public int getMaxProgress(int baseMaxProgress) {
+        return Math.max(Math.round(baseMaxProgress * durationFactor), 1);
+    }
+
+    public int getEnergyPerTick(int baseEnergyPerTick) {
+        return baseEnergyPerTick > 0 ? Math.max(Math.round(baseEnergyPerTick * energyFactor), 1) : 0;
+    }
+
+    public int getParallel() {
+        return parallel;
+    }
+}
@@ -0,0 +1,67 @@
+package net.matty.bmbc.block.entity;
+
+import net.matty.bmbc.config.ModCommonConfigs;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.util.Mth;
+import net.minecraft.world.level.Level;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Decides when machines may do their expensive work so it doesn't all land on the same tick.
+ * <p>
+ * Every machine is hashed into one of {@link #BUCKETS} round-robin buckets by position. Critical work (resolving a
+ * recipe after the inputs changed) runs as long as the level still has machine budget left this tick, and always on
+ * the machine's own bucket tick so nothing starves. Non-critical work (draining fluid containers) only runs on the
+ * machine's bucket tick and is skipped entirely while the server is running behind.
+ */
+public class MachineTickScheduler {
+    public static final int BUCKETS = 8;
+
+    private static final Map<Level, Budget> BUDGETS = new WeakHashMap<>();
+
+    private static class Budget {
+        private long gameTime = -1;
+        private long spentNanos;
+    }
+
+    public static int bucketFor(BlockPos pos) {
+        return (int) Math.floorMod(Mth.murmurHash3Mixer(pos.asLong()), (long) BUCKETS);
+    }
+
+    public static boolean canRunCritical(Level level, int bucket) {
+        return isTurn(level, bucket) || budget(level).spentNanos < budgetNanos();
+    }
+
+    public static boolean canRunDeferrable(Level level, int bucket) {
+        return isTurn(level, bucket) && !isBehind(level);
+    }
+
+    public static void charge(Level level, long nanos) {
+        budget(level).spentNanos += nanos;
+    }
+
+    private static boolean isTurn(Level level, int bucket) {
+        return level.getGameTime() % BUCKETS == bucket;
+    }
+
+    private static boolean isBehind(Level level) {
+        MinecraftServer server = level.getServer();
+        return server != null && server.getAverageTickTime() > 50.0F;
+    }
+
+    private static long budgetNanos() {
+        return (long) (ModCommonConfigs.MACHINE_TICK_BUDGET_MS.get() * 1_000_000L);
+    }
+
+    private static Budget budget(Level level) {
+        Budget budget = BUDGETS.computeIfAbsent(level, l -> new Budget());
+        if (budget.gameTime != level.getGameTime()) {
+            budget.gameTime = level.getGameTime();
+            budget.spentNanos = 0;
+        }
+        return budget;
+    }
+}
@@ -1,72 +1,26 @@
 package net.matty.bmbc.block.entity;
 
 import net.matty.bmbc.block.custom.ThreeDPrinterBlock;
-import net.matty.bmbc.recipe.ThreeDPrinterRecipe;
+import net.matty.bmbc.recipe.CachedRecipeLookup;
+import net.matty.bmbc.recipe.MachineRecipe;
 import net.matty.bmbc.screen.ThreeDPrinterMenu;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Direction;
-import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
-import net.minecraft.world.Containers;
-import net.minecraft.world.MenuProvider;
-import net.minecraft.world.SimpleContainer;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.inventory.AbstractContainerMenu;
-import net.minecraft.world.inventory.ContainerData;
 import net.minecraft.world.item.ItemStack;
-import net.minecraft.world.level.Level;
-import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraftforge.common.capabilities.Capability;
-import net.minecraftforge.common.capabilities.ForgeCapabilities;
-import net.minecraftforge.common.util.LazyOptional;
-import net.minecraftforge.items.IItemHandler;
-import net.minecraftforge.items.ItemStackHandler;
-import org.jetbrains.annotations.NotNull;
+import net.minecraft.world.level.block.state.properties.BooleanProperty;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Optional;
 
-public class ThreeDPrinterBlockEntity extends BlockEntity implements MenuProvider {
-    private final ItemStackHandler itemHandler = new ItemStackHandler(4) {
-        @Override
-        protected void onContentsChanged(int slot) {
-            setChanged();
-        }
-    };
-
-    private LazyOptional<IItemHandler> lazyItemHandler = LazyOptional.empty();
-
-    protected final ContainerData data;
-    private int progress = 0;
-    private int maxProgress = 240;
+public class ThreeDPrinterBlockEntity extends AbstractMachineBlockEntity {
+    private final CachedRecipeLookup recipeLookup = new CachedRecipeLookup(MachineRecipe.Type.THREE_D_PRINTING);
 
     public ThreeDPrinterBlockEntity(BlockPos pos, BlockState state) {
-        super(ModBlockEntities.THREE_D_PRINTER.get(), pos, state);
-        this.data = new ContainerData() {
-            @Override
-            public int get(int index) {
-                return switch (index) {
-                    case 0 -> ThreeDPrinterBlockEntity.this.progress;
-                    case 1 -> ThreeDPrinterBlockEntity.this.maxProgress;
-                    default -> 0;
-                };
-            }
-
-            @Override
-            public void set(int index, int value) {
-                switch (index) {
-                    case 0 -> ThreeDPrinterBlockEntity.this.progress = value;
-                    case 1 -> ThreeDPrinterBlockEntity.this.maxProgress = value;
-                }
-            }
-
-            @Override
-            public int getCount() {
-                return 2;
-            }
-        };
+        super(ModBlockEntities.THREE_D_PRINTER.get(), pos, state, "three_d_printer", 4, 240);
     }
 
     @Override
@@ -81,124 +35,55 @@ public class ThreeDPrinterBlockEntity extends BlockEntity implements MenuProvide
     }
 
     @Override
-    public @NotNull <T> LazyOptional<T> getCapability(@NotNull Capability<T> cap, @Nullable Direction side) {
-        if (cap == ForgeCapabilities.ITEM_HANDLER) {
-            return lazyItemHandler.cast();
-        }
-
-        return super.getCapability(cap, side);
+    protected BooleanProperty getActiveProperty() {
+        return ThreeDPrinterBlock.ACTIVE;
     }
 
     @Override
-    public void onLoad() {
-        super.onLoad();
-        lazyItemHandler = LazyOptional.of(() -> itemHandler);
+    protected boolean isItemValid(int slot, ItemStack stack) {
+        return recipeLookup.isValidInput(level, slot, stack);
     }
 
     @Override
-    public void invalidateCaps() {
-        super.invalidateCaps();
-        lazyItemHandler.invalidate();
+    protected void onInventoryChanged(int slot) {
+        super.onInventoryChanged(slot);
+        recipeLookup.invalidate();
     }
 
     @Override
-    protected void saveAdditional(CompoundTag nbt) {
-        nbt.put("inventory", itemHandler.serializeNBT());
-        nbt.putInt("three_d_printer.progress", this.progress);
+    protected void craftItem(int count) {
+        Optional<MachineRecipe> recipe = recipeLookup.get(level, itemHandler);
 
-        super.saveAdditional(nbt);
+        itemHandler.extractItem(0, count, false);
+        insertOutputs(recipe.get(), count);
     }
 
     @Override
-    public void load(CompoundTag nbt) {
-        super.load(nbt);
-        itemHandler.deserializeNBT(nbt.getCompound("inventory"));
-        progress = nbt.getInt("three_d_printer.progress");
-    }
-
-    public void drops() {
-        SimpleContainer inventory = new SimpleContainer(itemHandler.getSlots());
-        for (int i = 0; i < itemHandler.getSlots(); i++) {
-            inventory.setItem(i, itemHandler.getStackInSlot(i));
+    protected int getMaxCrafts() {
+        Optional<MachineRecipe> recipe = recipeLookup.get(level, itemHandler);
+        if (recipe.isEmpty()) {
+            return 0;
         }
 
-        Containers.dropContents(this.level, this.worldPosition, inventory);
-    }
-
-    public static void tick(Level level, BlockPos pos, BlockState state, ThreeDPrinterBlockEntity pEntity) {
-        if (level.isClientSide()) {
-            return;
-        }
-
-        if(hasRecipe(pEntity)) {
-            if (!state.getValue(ThreeDPrinterBlock.ACTIVE)) {
-                state = state.setValue(ThreeDPrinterBlock.ACTIVE, true);
-                level.setBlock(pos, state, 3);
-            }
-
-            pEntity.progress++;
-            setChanged(level, pos, state);
-
-            if(pEntity.progress >= pEntity.maxProgress) {
-                craftItem(pEntity);
-            }
-
-        } else {
-            if (state.getValue(ThreeDPrinterBlock.ACTIVE)) {
-                state = state.setValue(ThreeDPrinterBlock.ACTIVE, false);
-                level.setBlock(pos, state, 3);
-            }
-
-            pEntity.resetProgress();
-            setChanged(level, pos, state);
-        }
+        return Math.min(itemHandler.getStackInSlot(0).getCount(), getOutputSpace(recipe.get()));
     }
 
-    private void resetProgress() {
-        this.progress = 0;
+    @Override
+    protected boolean isRecipeLookupStale() {
+        return recipeLookup.isStale(level);
     }
 
-    private static void craftItem(ThreeDPrinterBlockEntity entity) {
-        Level level = entity.level;
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
-        }
-
-        Optional<ThreeDPrinterRecipe> recipe = level.getRecipeManager()
-                .getRecipeFor(ThreeDPrinterRecipe.Type.INSTANCE, inventory, level);
-
-        if(hasRecipe(entity)) {
-            entity.itemHandler.extractItem(0, 1, false);
-            entity.itemHandler.extractItem(1, 0, false);
-            entity.itemHandler.setStackInSlot(2, new ItemStack(recipe.get().getResultItem(level.registryAccess()).getItem(), // Careful this can apparently cause data leaks using level.registryAccess so TODO: Find a better way
-                    entity.itemHandler.getStackInSlot(2).getCount() + 1)); // if you add a count in the .json recipe files it will not work pls fix
-
-            entity.resetProgress();
-        }
+    @Override
+    protected MachineRecipe getCurrentRecipe() {
+        return recipeLookup.get(level, itemHandler).orElse(null);
     }
 
-    private static boolean hasRecipe(ThreeDPrinterBlockEntity entity) {
-        Level level = entity.level;
-        SimpleContainer inventory = new SimpleContainer(entity.itemHandler.getSlots());
-        for (int i = 0; i < entity.itemHandler.getSlots(); i++) {
-            inventory.setItem(i, entity.itemHandler.getStackInSlot(i));
-        }
-
-        Optional<ThreeDPrinterRecipe> recipe = level.getRecipeManager()
-                .getRecipeFor(ThreeDPrinterRecipe.Type.INSTANCE, inventory, level);
-
-        //boolean hasMoldInMoldSlot = entity.itemHandler.getStackInSlot(1).getItem() == ModItems.SCREW_TEMPLATE.get();
-
-        return recipe.isPresent() && canInsertAmountIntoOutputSlot(inventory) &&
-                canInsertItemIntoOutputSlot(inventory, recipe.get().getResultItem(level.registryAccess()));
-    }
+    @Override
+    protected boolean hasRecipe() {
+        Optional<MachineRecipe> recipe = recipeLookup.get(level, itemHandler);
 
-    private static boolean canInsertItemIntoOutputSlot(SimpleContainer inventory, ItemStack stack) {
-        return inventory.getItem(2).getItem() == stack.getItem() || inventory.getItem(2).isEmpty();
-    }
+        //boolean hasMoldInMoldSlot = itemHandler.getStackInSlot(1).getItem() == ModItems.SCREW_TEMPLATE.get();
 
-    private static boolean canInsertAmountIntoOutputSlot(SimpleContainer inventory) {
-        return inventory.getItem(2).getMaxStackSize() > inventory.getItem(2).getCount();
+        return recipe.isPresent() && canInsertOutputs(recipe.get());
     }
 }
@@ -0,0 +1,31 @@
+package net.matty.bmbc.command;
+
+import com.mojang.brigadier.CommandDispatcher;
+import net.matty.bmbc.networking.NetworkStats;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+public class NetStatsCommand {
+    public NetStatsCommand(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("bmbc")
+                .then(Commands.literal("netstats")
+                        .requires(source -> source.hasPermission(2))
+                        .executes(context -> show(context.getSource()))
+                        .then(Commands.literal("reset")
+                                .executes(context -> reset(context.getSource())))));
+    }
+
+    private int show(CommandSourceStack source) {
+        for (String line : NetworkStats.report()) {
+            source.sendSuccess(Component.literal(line), false);
+        }
+        return 1;
+    }
+
+    private int reset(CommandSourceStack source) {
+        NetworkStats.reset();
+        source.sendSuccess(Component.literal("Network stats reset"), true);
+        return 1;
+    }
+}
@@ -0,0 +1,34 @@
+package net.matty.bmbc.config;
+
+import net.minecraftforge.common.ForgeConfigSpec;
+
+public class ModCommonConfigs {
+    public static final ForgeConfigSpec.Builder BUILDER = new ForgeConfigSpec.Builder();
+    public static final ForgeConfigSpec SPEC;
+
+    public static final ForgeConfigSpec.IntValue MACHINE_ACTIVE_IDLE_TICKS;
+    public static final ForgeConfigSpec.DoubleValue MACHINE_TICK_BUDGET_MS;
+    public static final ForgeConfigSpec.BooleanValue MACHINE_QUANTIZED_SYNC;
+
+    public static final ForgeConfigSpec.IntValue NETWORK_STATS_LOG_INTERVAL;
+
+    static {
+        BUILDER.push("Machines");
+
+        MACHINE_ACTIVE_IDLE_TICKS = BUILDER.comment("How many ticks a machine has to sit idle before it switches its ACTIVE look off")
+                .defineInRange("Active Idle Ticks", 20, 0, 1200);
+        MACHINE_TICK_BUDGET_MS = BUILDER.comment("Milliseconds per tick each dimension may spend on recipe lookups before the rest are spread over the next ticks")
+                .defineInRange("Tick Budget Ms", 5.0, 0.0, 50.0);
+        MACHINE_QUANTIZED_SYNC = BUILDER.comment("Only sync energy and fluid to players without the menu open when their gauges would move a pixel")
+                .define("Quantized Sync", true);
+
+        BUILDER.pop();
+        BUILDER.push("Network");
+
+        NETWORK_STATS_LOG_INTERVAL = BUILDER.comment("Seconds between the log lines summing up what bmbc sent to clients, 0 turns them off. /bmbc netstats shows the same at any time")
+                .defineInRange("Stats Log Interval", 300, 0, 86400);
+
+        BUILDER.pop();
+        SPEC = BUILDER.build();
+    }
+}
@@ -157,6 +157,9 @@ public class ModItemModelProvider extends ItemModelProvider {
         simpleItem(ModMachineComponents.EPOXY_CIRCUIT_BOARD);
         simpleItem(ModMachineComponents.IRON_ROD);
         simpleItem(ModMachineComponents.MAGNETIC_IRON_ROD);
+        simpleItem(ModMachineComponents.SPEED_UPGRADE);
+        simpleItem(ModMachineComponents.ENERGY_EFFICIENCY_UPGRADE);
+        simpleItem(ModMachineComponents.PARALLEL_PROCESSING_UPGRADE);
 
         for (RegistryObject<Item> itemToModel:BMBC_Main.doDatagen()) simpleItem(itemToModel);
     }
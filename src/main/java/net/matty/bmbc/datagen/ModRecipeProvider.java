@@ -107,6 +107,40 @@ public class ModRecipeProvider extends RecipeProvider implements IConditionBuild
                 .unlockedBy("has_copper_wire", inventoryTrigger(ItemPredicate.Builder.item()
                         .of(ModMachineComponents.COPPER_WIRE.get()).build()))
                 .save(consumer);
+
+        // Machine Upgrades
+        ShapedRecipeBuilder.shaped(RecipeCategory.TOOLS, ModMachineComponents.SPEED_UPGRADE.get()).group("machine_upgrades")
+                .define('E', ModMachineComponents.ELECTRIC_MOTOR.get())
+                .define('C', ModMachineComponents.EPOXY_CIRCUIT_BOARD.get())
+                .define('R', Items.REDSTONE)
+                .pattern("RER")
+                .pattern("ECE")
+                .pattern("RER")
+                .unlockedBy("has_electric_motor", inventoryTrigger(ItemPredicate.Builder.item()
+                        .of(ModMachineComponents.ELECTRIC_MOTOR.get()).build()))
+                .save(consumer);
+
+        ShapedRecipeBuilder.shaped(RecipeCategory.TOOLS, ModMachineComponents.ENERGY_EFFICIENCY_UPGRADE.get()).group("machine_upgrades")
+                .define('F', ModMachineComponents.COPPER_FOIL.get())
+                .define('C', ModMachineComponents.EPOXY_CIRCUIT_BOARD.get())
+                .define('W', ModMachineComponents.COPPER_WIRE.get())
+                .pattern("WFW")
+                .pattern("FCF")
+                .pattern("WFW")
+                .unlockedBy("has_epoxy_circuit_board", inventoryTrigger(ItemPredicate.Builder.item()
+                        .of(ModMachineComponents.EPOXY_CIRCUIT_BOARD.get()).build()))
+                .save(consumer);
+
+        ShapedRecipeBuilder.shaped(RecipeCategory.TOOLS, ModMachineComponents.PARALLEL_PROCESSING_UPGRADE.get()).group("machine_upgrades")
+                .define('E', ModMachineComponents.ELECTRIC_MOTOR.get())
+                .define('C', ModMachineComponents.EPOXY_CIRCUIT_BOARD.get())
+                .define('W', ModMachineComponents.COPPER_WIRE.get())
+                .pattern("WEW")
+                .pattern("ECE")
+                .pattern("WEW")
+                .unlockedBy("has_electric_motor", inventoryTrigger(ItemPredicate.Builder.item()
+                        .of(ModMachineComponents.ELECTRIC_MOTOR.get()).build()))
+                .save(consumer);
     }
 
     protected static void oreSmelting(Consumer<FinishedRecipe> pFinishedRecipeConsumer, List<ItemLike> pIngredients, RecipeCategory pCategory, ItemLike pResult, float pExperience, int pCookingTIme, String pGroup) {
@@ -2,13 +2,19 @@ package net.matty.bmbc.event;
 
 import net.matty.bmbc.BetterMineBetterCraft;
 import net.matty.bmbc.client.ThirstHudOverlay;
+import net.matty.bmbc.recipe.MachineRecipeIndex;
 import net.matty.bmbc.util.KeyBinding;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientPacketListener;
 import net.minecraft.network.chat.Component;
 import net.minecraftforge.api.distmarker.Dist;
+import net.minecraftforge.client.event.ClientPlayerNetworkEvent;
 import net.minecraftforge.client.event.InputEvent;
+import net.minecraftforge.client.event.RecipesUpdatedEvent;
 import net.minecraftforge.client.event.RegisterGuiOverlaysEvent;
 import net.minecraftforge.client.event.RegisterKeyMappingsEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
+import net.minecraftforge.eventbus.api.EventPriority;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 
@@ -22,6 +28,25 @@ public class ClientEvents {
                 //ModNetworkingPackets.sendToServer(new DrinkWaterC2SPacket());
             }
         }
+
+        @SubscribeEvent
+        public static void onRecipesUpdated(RecipesUpdatedEvent event) {
+            MachineRecipeIndex.rebuildAll(event.getRecipeManager(), true);
+        }
+
+        // After ModEvents has moved on the tag generation
+        @SubscribeEvent(priority = EventPriority.LOW)
+        public static void onTagsUpdated(TagsUpdatedEvent event) {
+            ClientPacketListener connection = Minecraft.getInstance().getConnection();
+            if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.CLIENT_PACKET_RECEIVED && connection != null) {
+                MachineRecipeIndex.rebuildAll(connection.getRecipeManager(), true);
+            }
+        }
+
+        @SubscribeEvent
+        public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+            MachineRecipeIndex.clearAll(true);
+        }
     }
 
     @Mod.EventBusSubscriber(modid = BetterMineBetterCraft.MOD_ID, value = Dist.CLIENT, bus = Mod.EventBusSubscriber.Bus.MOD)
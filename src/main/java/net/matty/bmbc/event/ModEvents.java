@@ -5,13 +5,22 @@ import gg.hipposgrumm.bmbc.element.Element;
 import gg.hipposgrumm.bmbc.items.CompoundItem;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import net.matty.bmbc.BetterMineBetterCraft;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
+import net.matty.bmbc.command.NetStatsCommand;
+import net.matty.bmbc.config.ModCommonConfigs;
 import net.matty.bmbc.item.ModChemicalCompounds;
 import net.matty.bmbc.item.ModFoodItems;
 import net.matty.bmbc.item.ModMineralItems;
+import net.matty.bmbc.networking.MachineSyncBundler;
+import net.matty.bmbc.networking.NetworkStats;
+import net.matty.bmbc.recipe.MachineRecipeIndex;
+import net.matty.bmbc.screen.MachineMenu;
 import net.matty.bmbc.thirst.PlayerThirst;
 import net.matty.bmbc.thirst.PlayerThirstProvider;
 import net.matty.bmbc.villager.ModVillagers;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.npc.VillagerProfession;
@@ -24,14 +33,20 @@ import net.minecraft.world.item.trading.MerchantOffer;
 import net.minecraft.world.level.Level;
 import net.minecraftforge.common.capabilities.RegisterCapabilitiesEvent;
 import net.minecraftforge.event.AttachCapabilitiesEvent;
+import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TagsUpdatedEvent;
 import net.minecraftforge.event.TickEvent;
 import net.minecraftforge.event.entity.EntityJoinLevelEvent;
 import net.minecraftforge.event.entity.item.ItemTossEvent;
+import net.minecraftforge.event.entity.player.PlayerContainerEvent;
 import net.minecraftforge.event.entity.player.PlayerEvent;
+import net.minecraftforge.event.server.ServerStartedEvent;
+import net.minecraftforge.event.server.ServerStoppedEvent;
 import net.minecraftforge.event.village.VillagerTradesEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.LogicalSide;
 import net.minecraftforge.fml.common.Mod;
+import net.minecraftforge.server.ServerLifecycleHooks;
 
 import java.util.Collection;
 import java.util.List;
@@ -126,4 +141,54 @@ public class ModEvents {
             }
         }
     }
+
+    @SubscribeEvent
+    public static void onLevelTick(TickEvent.LevelTickEvent event) {
+        if(event.phase == TickEvent.Phase.END && event.level instanceof ServerLevel level) {
+            MachineSyncBundler.flush(level);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(TickEvent.ServerTickEvent event) {
+        int interval = ModCommonConfigs.NETWORK_STATS_LOG_INTERVAL.get();
+        if(event.phase == TickEvent.Phase.END && interval > 0 && ServerLifecycleHooks.getCurrentServer().getTickCount() % (interval * 20) == 0) {
+            NetworkStats.log();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onCommandsRegister(RegisterCommandsEvent event) {
+        new NetStatsCommand(event.getDispatcher());
+    }
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        MachineRecipeIndex.onTagsUpdated();
+
+        // Also fires for the initial load, before there's a server. Its indices are built once it has started.
+        MinecraftServer server = ServerLifecycleHooks.getCurrentServer();
+        if (event.getUpdateCause() == TagsUpdatedEvent.UpdateCause.SERVER_DATA_LOAD && server != null) {
+            MachineRecipeIndex.rebuildAll(server.getRecipeManager(), false);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStarted(ServerStartedEvent event) {
+        MachineRecipeIndex.rebuildAll(event.getServer().getRecipeManager(), false);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        MachineRecipeIndex.clearAll(false);
+    }
+
+    @SubscribeEvent
+    public static void onContainerOpen(PlayerContainerEvent.Open event) {
+        if (event.getContainer() instanceof MachineMenu menu
+                && menu.getBlockEntity() instanceof AbstractMachineBlockEntity machine
+                && event.getEntity() instanceof ServerPlayer player) {
+            machine.sendProgressTo(player);
+        }
+    }
 }
@@ -10,12 +10,12 @@ import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import net.matty.bmbc.BetterMineBetterCraft;
 import net.matty.bmbc.block.ModBlocks;
-import net.matty.bmbc.recipe.AlloySmeltingRecipe;
+import net.matty.bmbc.recipe.MachineRecipe;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 
-public class AlloySmeltingRecipeCategory implements IRecipeCategory<AlloySmeltingRecipe> {
+public class AlloySmeltingRecipeCategory implements IRecipeCategory<MachineRecipe> {
     public final static ResourceLocation UID = new ResourceLocation(BetterMineBetterCraft.MOD_ID, "alloy_smelting");
     public final static ResourceLocation TEXTURE =
             new ResourceLocation(BetterMineBetterCraft.MOD_ID, "textures/gui/alloy_furnace_gui.png");
@@ -29,7 +29,7 @@ public class AlloySmeltingRecipeCategory implements IRecipeCategory<AlloySmeltin
     }
 
     @Override
-    public RecipeType<AlloySmeltingRecipe> getRecipeType() {
+    public RecipeType<MachineRecipe> getRecipeType() {
         return JEIBetterMineBetterCraftPlugin.ALLOY_SMELTING_TYPE;
     }
 
@@ -49,7 +49,7 @@ public class AlloySmeltingRecipeCategory implements IRecipeCategory<AlloySmeltin
     }
 
     @Override
-    public void setRecipe(IRecipeLayoutBuilder builder, AlloySmeltingRecipe recipe, IFocusGroup focuses) {
+    public void setRecipe(IRecipeLayoutBuilder builder, MachineRecipe recipe, IFocusGroup focuses) {
         builder.addSlot(RecipeIngredientRole.INPUT, 35, 9).addIngredients(recipe.getIngredients().get(0));
         builder.addSlot(RecipeIngredientRole.INPUT, 53, 9).addIngredients(recipe.getIngredients().get(1));
         builder.addSlot(RecipeIngredientRole.OUTPUT, 105, 36).addItemStack(recipe.getResultItem());
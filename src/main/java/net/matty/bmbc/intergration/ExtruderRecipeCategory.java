@@ -10,12 +10,12 @@ import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import net.matty.bmbc.BetterMineBetterCraft;
 import net.matty.bmbc.block.ModBlocks;
-import net.matty.bmbc.recipe.ExtruderRecipe;
+import net.matty.bmbc.recipe.MachineRecipe;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 
-public class ExtruderRecipeCategory implements IRecipeCategory<ExtruderRecipe> {
+public class ExtruderRecipeCategory implements IRecipeCategory<MachineRecipe> {
     public final static ResourceLocation UID = new ResourceLocation(BetterMineBetterCraft.MOD_ID, "extrusion");
     public final static ResourceLocation TEXTURE =
             new ResourceLocation(BetterMineBetterCraft.MOD_ID, "textures/gui/extruder_gui.png");
@@ -29,7 +29,7 @@ public class ExtruderRecipeCategory implements IRecipeCategory<ExtruderRecipe> {
     }
 
     @Override
-    public RecipeType<ExtruderRecipe> getRecipeType() {
+    public RecipeType<MachineRecipe> getRecipeType() {
         return JEIBetterMineBetterCraftPlugin.EXTRUSION_TYPE;
     }
 
@@ -49,7 +49,7 @@ public class ExtruderRecipeCategory implements IRecipeCategory<ExtruderRecipe> {
     }
 
     @Override
-    public void setRecipe(IRecipeLayoutBuilder builder, ExtruderRecipe recipe, IFocusGroup focuses) {
+    public void setRecipe(IRecipeLayoutBuilder builder, MachineRecipe recipe, IFocusGroup focuses) {
         builder.addSlot(RecipeIngredientRole.INPUT, 42, 36).addIngredients(recipe.getIngredients().get(0));
         builder.addSlot(RecipeIngredientRole.INPUT, 63, 36).addIngredients(recipe.getIngredients().get(1));
         builder.addSlot(RecipeIngredientRole.OUTPUT, 105, 36).addItemStack(recipe.getResultItem());
@@ -16,11 +16,11 @@ import java.util.Objects;
 
 @JeiPlugin
 public class JEIBetterMineBetterCraftPlugin implements IModPlugin {
-    public static RecipeType<AlloySmeltingRecipe> ALLOY_SMELTING_TYPE = new RecipeType<>(AlloySmeltingRecipeCategory.UID, AlloySmeltingRecipe.class);
-    public static RecipeType<PressureVesselRecipe> DIGESTION_TYPE = new RecipeType<>(PressureVesselRecipeCategory.UID, PressureVesselRecipe.class);
-    public static RecipeType<ExtruderRecipe> EXTRUSION_TYPE = new RecipeType<>(ExtruderRecipeCategory.UID, ExtruderRecipe.class);
-    public static RecipeType<MaceratorRecipe> MACERATION_TYPE = new RecipeType<>(MaceratorRecipeCategory.UID, MaceratorRecipe.class);
-    public static RecipeType<ThreeDPrinterRecipe> THREE_D_PRINTING_TYPE = new RecipeType<>(ThreeDPrinterRecipeCategory.UID, ThreeDPrinterRecipe.class);
+    public static RecipeType<MachineRecipe> ALLOY_SMELTING_TYPE = new RecipeType<>(AlloySmeltingRecipeCategory.UID, MachineRecipe.class);
+    public static RecipeType<MachineRecipe> DIGESTION_TYPE = new RecipeType<>(PressureVesselRecipeCategory.UID, MachineRecipe.class);
+    public static RecipeType<MachineRecipe> EXTRUSION_TYPE = new RecipeType<>(ExtruderRecipeCategory.UID, MachineRecipe.class);
+    public static RecipeType<MachineRecipe> MACERATION_TYPE = new RecipeType<>(MaceratorRecipeCategory.UID, MachineRecipe.class);
+    public static RecipeType<MachineRecipe> THREE_D_PRINTING_TYPE = new RecipeType<>(ThreeDPrinterRecipeCategory.UID, MachineRecipe.class);
 
     @Override
     public ResourceLocation getPluginUid() {
@@ -39,11 +39,11 @@ public class JEIBetterMineBetterCraftPlugin implements IModPlugin {
     @Override
     public void registerRecipes(IRecipeRegistration registration) {
         RecipeManager rm = Objects.requireNonNull(Minecraft.getInstance().level).getRecipeManager();
-        List<ThreeDPrinterRecipe> recipes3dPrinting = rm.getAllRecipesFor(ThreeDPrinterRecipe.Type.INSTANCE);
-        List<AlloySmeltingRecipe> recipesAlloySmelting = rm.getAllRecipesFor(AlloySmeltingRecipe.Type.INSTANCE);
-        List<PressureVesselRecipe> recipesDigestion = rm.getAllRecipesFor(PressureVesselRecipe.Type.INSTANCE);
-        List<ExtruderRecipe> recipesExtrusion = rm.getAllRecipesFor(ExtruderRecipe.Type.INSTANCE);
-        List<MaceratorRecipe> recipesMaceration = rm.getAllRecipesFor(MaceratorRecipe.Type.INSTANCE);
+        List<MachineRecipe> recipes3dPrinting = rm.getAllRecipesFor(MachineRecipe.Type.THREE_D_PRINTING);
+        List<MachineRecipe> recipesAlloySmelting = rm.getAllRecipesFor(MachineRecipe.Type.ALLOY_SMELTING);
+        List<MachineRecipe> recipesDigestion = rm.getAllRecipesFor(MachineRecipe.Type.DIGESTION);
+        List<MachineRecipe> recipesExtrusion = rm.getAllRecipesFor(MachineRecipe.Type.EXTRUSION);
+        List<MachineRecipe> recipesMaceration = rm.getAllRecipesFor(MachineRecipe.Type.MACERATION);
 
         registration.addRecipes(ALLOY_SMELTING_TYPE, recipesAlloySmelting);
         registration.addRecipes(DIGESTION_TYPE, recipesDigestion);
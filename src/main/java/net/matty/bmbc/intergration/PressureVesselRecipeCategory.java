@@ -11,14 +11,14 @@ import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import net.matty.bmbc.BetterMineBetterCraft;
 import net.matty.bmbc.block.ModBlocks;
-import net.matty.bmbc.recipe.PressureVesselRecipe;
+import net.matty.bmbc.recipe.MachineRecipe;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 
 import java.util.List;
 
-public class PressureVesselRecipeCategory implements IRecipeCategory<PressureVesselRecipe> {
+public class PressureVesselRecipeCategory implements IRecipeCategory<MachineRecipe> {
     public final static ResourceLocation UID = new ResourceLocation(BetterMineBetterCraft.MOD_ID, "digestion");
     public final static ResourceLocation TEXTURE =
             new ResourceLocation(BetterMineBetterCraft.MOD_ID, "textures/gui/pressure_vessel_gui.png");
@@ -32,7 +32,7 @@ public class PressureVesselRecipeCategory implements IRecipeCategory<PressureVes
     }
 
     @Override
-    public RecipeType<PressureVesselRecipe> getRecipeType() {
+    public RecipeType<MachineRecipe> getRecipeType() {
         return JEIBetterMineBetterCraftPlugin.DIGESTION_TYPE;
     }
 
@@ -52,7 +52,7 @@ public class PressureVesselRecipeCategory implements IRecipeCategory<PressureVes
     }
 
     @Override
-    public void setRecipe(IRecipeLayoutBuilder builder, PressureVesselRecipe recipe, IFocusGroup focuses) {
+    public void setRecipe(IRecipeLayoutBuilder builder, MachineRecipe recipe, IFocusGroup focuses) {
         builder.addSlot(RecipeIngredientRole.INPUT, 86, 15).addIngredients(recipe.getIngredients().get(0));
         builder.addSlot(RecipeIngredientRole.INPUT, 55, 15)
                         .addIngredients(ForgeTypes.FLUID_STACK, List.of(recipe.getFluidStack()))
@@ -10,12 +10,12 @@ import mezz.jei.api.recipe.RecipeType;
 import mezz.jei.api.recipe.category.IRecipeCategory;
 import net.matty.bmbc.BetterMineBetterCraft;
 import net.matty.bmbc.block.ModBlocks;
-import net.matty.bmbc.recipe.ThreeDPrinterRecipe;
+import net.matty.bmbc.recipe.MachineRecipe;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.item.ItemStack;
 
-public class ThreeDPrinterRecipeCategory implements IRecipeCategory<ThreeDPrinterRecipe> {
+public class ThreeDPrinterRecipeCategory implements IRecipeCategory<MachineRecipe> {
     public final static ResourceLocation UID = new ResourceLocation(BetterMineBetterCraft.MOD_ID, "3d_printing");
     public final static ResourceLocation TEXTURE =
             new ResourceLocation(BetterMineBetterCraft.MOD_ID, "textures/gui/3d_printer_gui.png");
@@ -29,7 +29,7 @@ public class ThreeDPrinterRecipeCategory implements IRecipeCategory<ThreeDPrinte
     }
 
     @Override
-    public RecipeType<ThreeDPrinterRecipe> getRecipeType() {
+    public RecipeType<MachineRecipe> getRecipeType() {
         return JEIBetterMineBetterCraftPlugin.THREE_D_PRINTING_TYPE;
     }
 
@@ -49,7 +49,7 @@ public class ThreeDPrinterRecipeCategory implements IRecipeCategory<ThreeDPrinte
     }
 
     @Override
-    public void setRecipe(IRecipeLayoutBuilder builder, ThreeDPrinterRecipe recipe, IFocusGroup focuses) {
+    public void setRecipe(IRecipeLayoutBuilder builder, MachineRecipe recipe, IFocusGroup focuses) {
         builder.addSlot(RecipeIngredientRole.INPUT, 12, 15).addIngredients(recipe.getIngredients().get(0));
         builder.addSlot(RecipeIngredientRole.INPUT, 64, 37).addIngredients(recipe.getIngredients().get(1));
         builder.addSlot(RecipeIngredientRole.OUTPUT, 116, 37).addItemStack(recipe.getResultItem());
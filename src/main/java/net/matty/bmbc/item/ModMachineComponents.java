@@ -1,6 +1,7 @@
 package net.matty.bmbc.item;
 
 import net.matty.bmbc.BetterMineBetterCraft;
+import net.matty.bmbc.item.custom.MachineUpgradeItem;
 import net.minecraft.world.item.Item;
 import net.minecraftforge.eventbus.api.IEventBus;
 import net.minecraftforge.registries.DeferredRegister;
@@ -32,6 +33,16 @@ public class ModMachineComponents {
     public static final RegistryObject<Item> MAGNETIC_IRON_ROD = ITEMS.register("magnetic_iron_rod",
             () -> new Item(new Item.Properties()));
 
+    // Upgrades
+    public static final RegistryObject<Item> SPEED_UPGRADE = ITEMS.register("speed_upgrade",
+            () -> new MachineUpgradeItem(new Item.Properties().stacksTo(4), 0.75F, 1.5F, 1));
+
+    public static final RegistryObject<Item> ENERGY_EFFICIENCY_UPGRADE = ITEMS.register("energy_efficiency_upgrade",
+            () -> new MachineUpgradeItem(new Item.Properties().stacksTo(4), 1.0F, 0.8F, 1));
+
+    public static final RegistryObject<Item> PARALLEL_PROCESSING_UPGRADE = ITEMS.register("parallel_processing_upgrade",
+            () -> new MachineUpgradeItem(new Item.Properties().stacksTo(4), 1.0F, 1.0F, 2));
+
     public static void register(IEventBus eventBus) {
         ITEMS.register(eventBus);
     }
@@ -0,0 +1,65 @@
+package net.matty.bmbc.item.custom;
+
+import net.minecraft.ChatFormatting;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.TooltipFlag;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * An item that goes into a machine's upgrade slots. Each item in the stack applies its factors once, so two speed
+ * upgrades with a duration factor of 0.75 leave 0.5625 of the original processing time. A machine counts at most one
+ * full stack of each upgrade, see {@link net.matty.bmbc.block.entity.MachineModifiers}.
+ */
+public class MachineUpgradeItem extends Item {
+    private final float durationFactor;
+    private final float energyFactor;
+    private final int parallelFactor;
+
+    /**
+     * @param durationFactor multiplies the ticks a craft takes
+     * @param energyFactor multiplies the energy used per tick
+     * @param parallelFactor multiplies the crafts run per cycle
+     */
+    public MachineUpgradeItem(Properties pProperties, float durationFactor, float energyFactor, int parallelFactor) {
+        super(pProperties);
+        this.durationFactor = durationFactor;
+        this.energyFactor = energyFactor;
+        this.parallelFactor = parallelFactor;
+    }
+
+    public float getDurationFactor() {
+        return durationFactor;
+    }
+
+    public float getEnergyFactor() {
+        return energyFactor;
+    }
+
+    public int getParallelFactor() {
+        return parallelFactor;
+    }
+
+    @Override
+    public void appendHoverText(ItemStack stack, @Nullable Level level, List<Component> tooltip, TooltipFlag flag) {
+        super.appendHoverText(stack, level, tooltip, flag);
+
+        if (durationFactor != 1.0F) {
+            tooltip.add(Component.translatable("item.bmbc.tooltip.upgrade.duration", percent(durationFactor)).withStyle(ChatFormatting.GRAY));
+        }
+        if (energyFactor != 1.0F) {
+            tooltip.add(Component.translatable("item.bmbc.tooltip.upgrade.energy", percent(energyFactor)).withStyle(ChatFormatting.GRAY));
+        }
+        if (parallelFactor != 1) {
+            tooltip.add(Component.translatable("item.bmbc.tooltip.upgrade.parallel", parallelFactor).withStyle(ChatFormatting.GRAY));
+        }
+    }
+
+    private static int percent(float factor) {
+        return Math.round(factor * 100);
+    }
+}
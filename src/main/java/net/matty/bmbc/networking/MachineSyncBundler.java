@@ -0,0 +1,51 @@
+package net.matty.bmbc.networking;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.matty.bmbc.networking.packet.MachineSyncBundleS2CPacket;
+import net.matty.bmbc.networking.packet.MachineSyncS2CPacket;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the machine syncs of a level tick per chunk and sends them as one packet per chunk at the end of the
+ * tick, so a chunk full of machines costs its trackers one packet instead of one per machine.
+ */
+public class MachineSyncBundler {
+    private static final Map<ServerLevel, Long2ObjectMap<List<MachineSyncS2CPacket>>> PENDING = new IdentityHashMap<>();
+
+    public static void queue(ServerLevel level, MachineSyncS2CPacket sync) {
+        PENDING.computeIfAbsent(level, l -> new Long2ObjectOpenHashMap<>())
+                .computeIfAbsent(ChunkPos.asLong(sync.getPos()), c -> new ArrayList<>())
+                .add(sync);
+    }
+
+    public static void flush(ServerLevel level) {
+        Long2ObjectMap<List<MachineSyncS2CPacket>> chunks = PENDING.remove(level);
+        if (chunks == null) {
+            return;
+        }
+
+        for (Long2ObjectMap.Entry<List<MachineSyncS2CPacket>> entry : chunks.long2ObjectEntrySet()) {
+            ChunkPos chunkPos = new ChunkPos(entry.getLongKey());
+            LevelChunk chunk = level.getChunkSource().getChunkNow(chunkPos.x, chunkPos.z);
+            if (chunk == null) {
+                continue;
+            }
+
+            List<MachineSyncS2CPacket> syncs = entry.getValue();
+            // A lone sync is smaller on its own than wrapped in a bundle
+            if (syncs.size() == 1) {
+                ModNetworkingPackets.sendToPlayersTrackingChunk(syncs.get(0), chunk);
+            } else {
+                ModNetworkingPackets.sendToPlayersTrackingChunk(new MachineSyncBundleS2CPacket(chunkPos, syncs), chunk);
+            }
+        }
+    }
+}
@@ -3,11 +3,14 @@ package net.matty.bmbc.networking;
 import net.matty.bmbc.BetterMineBetterCraft;
 import net.matty.bmbc.networking.packet.*;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraftforge.network.NetworkDirection;
 import net.minecraftforge.network.NetworkRegistry;
 import net.minecraftforge.network.PacketDistributor;
 import net.minecraftforge.network.simple.SimpleChannel;
+import net.minecraftforge.server.ServerLifecycleHooks;
 
 public class ModNetworkingPackets {
     private static SimpleChannel INSTANCE;
@@ -45,16 +48,16 @@ public class ModNetworkingPackets {
         //        .consumerMainThread(ThirstDataSyncS2CPacket::handle)
         //        .add();
 
-        net.messageBuilder(EnergySyncS2CPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-                .decoder(EnergySyncS2CPacket::new)
-                .encoder(EnergySyncS2CPacket::toBytes)
-                .consumerMainThread(EnergySyncS2CPacket::handle)
+        net.messageBuilder(MachineSyncS2CPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(MachineSyncS2CPacket::new)
+                .encoder(NetworkStats.measured(MachineSyncS2CPacket::toBytes))
+                .consumerMainThread(MachineSyncS2CPacket::handle)
                 .add();
 
-        net.messageBuilder(FluidSyncS2CPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
-                .decoder(FluidSyncS2CPacket::new)
-                .encoder(FluidSyncS2CPacket::toBytes)
-                .consumerMainThread(FluidSyncS2CPacket::handle)
+        net.messageBuilder(MachineSyncBundleS2CPacket.class, id(), NetworkDirection.PLAY_TO_CLIENT)
+                .decoder(MachineSyncBundleS2CPacket::new)
+                .encoder(NetworkStats.measured(MachineSyncBundleS2CPacket::toBytes))
+                .consumerMainThread(MachineSyncBundleS2CPacket::handle)
                 .add();
     }
 
@@ -64,9 +67,19 @@ public class ModNetworkingPackets {
 
     public static <MSG> void sendToPlayer(MSG message, ServerPlayer player) {
         INSTANCE.send(PacketDistributor.PLAYER.with(() -> player), message);
+        NetworkStats.record(message, player.level.dimension(), 1);
     }
 
     public static <MSG> void sendToClients(MSG message) {
         INSTANCE.send(PacketDistributor.ALL.noArg(), message);
+        NetworkStats.record(message, "all", ServerLifecycleHooks.getCurrentServer().getPlayerCount());
+    }
+
+    public static <MSG> void sendToPlayersTrackingChunk(MSG message, LevelChunk chunk) {
+        INSTANCE.send(PacketDistributor.TRACKING_CHUNK.with(() -> chunk), message);
+        if (chunk.getLevel() instanceof ServerLevel level) {
+            NetworkStats.record(message, level.dimension(),
+                    level.getChunkSource().chunkMap.getPlayers(chunk.getPos(), false).size());
+        }
     }
 }
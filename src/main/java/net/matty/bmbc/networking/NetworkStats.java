@@ -0,0 +1,93 @@
+package net.matty.bmbc.networking;
+
+import net.matty.bmbc.BetterMineBetterCraft;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Counts the packets and bytes we send on our channel, per message type and per dimension. A packet sent to several
+ * players counts once per player. Only touched from the server thread.
+ */
+public class NetworkStats {
+    private static final Map<String, Counter> BY_TYPE = new HashMap<>();
+    private static final Map<String, Counter> BY_DIMENSION = new HashMap<>();
+
+    private static long since = System.currentTimeMillis();
+    // Size of the last message encoded, our sends encode synchronously before recording
+    private static int lastEncodedBytes = 0;
+
+    public static <MSG> BiConsumer<MSG, FriendlyByteBuf> measured(BiConsumer<MSG, FriendlyByteBuf> encoder) {
+        return (message, buf) -> {
+            int start = buf.writerIndex();
+            encoder.accept(message, buf);
+            lastEncodedBytes = buf.writerIndex() - start;
+        };
+    }
+
+    static void record(Object message, String dimension, int recipients) {
+        if (recipients <= 0) {
+            return;
+        }
+        long bytes = (long) recipients * lastEncodedBytes;
+        BY_TYPE.computeIfAbsent(message.getClass().getSimpleName(), k -> new Counter()).add(recipients, bytes);
+        BY_DIMENSION.computeIfAbsent(dimension, k -> new Counter()).add(recipients, bytes);
+    }
+
+    static void record(Object message, ResourceKey<Level> dimension, int recipients) {
+        record(message, dimension.location().toString(), recipients);
+    }
+
+    public static void reset() {
+        BY_TYPE.clear();
+        BY_DIMENSION.clear();
+        since = System.currentTimeMillis();
+    }
+
+    public static List<String> report() {
+        List<String> lines = new ArrayList<>();
+        double seconds = Math.max((System.currentTimeMillis() - since) / 1000.0, 1.0);
+        Counter total = new Counter();
+        BY_TYPE.values().forEach(counter -> total.add(counter.packets, counter.bytes));
+
+        lines.add(String.format("Total: %s over %.0fs", total.format(seconds), seconds));
+        addSection(lines, BY_TYPE, seconds);
+        addSection(lines, BY_DIMENSION, seconds);
+        return lines;
+    }
+
+    private static void addSection(List<String> lines, Map<String, Counter> counters, double seconds) {
+        counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> entry) -> entry.getValue().bytes).reversed())
+                .forEach(entry -> lines.add("  " + entry.getKey() + ": " + entry.getValue().format(seconds)));
+    }
+
+    public static void log() {
+        if (BY_TYPE.isEmpty()) {
+            return;
+        }
+        BetterMineBetterCraft.LOGGER.info("Network stats: {}", String.join(", ", report()).replace("  ", ""));
+        reset();
+    }
+
+    private static class Counter {
+        private long packets;
+        private long bytes;
+
+        private void add(long packets, long bytes) {
+            this.packets += packets;
+            this.bytes += bytes;
+        }
+
+        private String format(double seconds) {
+            return String.format("%d packets, %d bytes (%.1f/s, %.1f B/s)", packets, bytes, packets / seconds, bytes / seconds);
+        }
+    }
+}
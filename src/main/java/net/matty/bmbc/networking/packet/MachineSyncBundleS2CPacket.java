@@ -0,0 +1,64 @@
+package net.matty.bmbc.networking.packet;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraftforge.network.NetworkEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * All the machine syncs of one chunk for one tick. The chunk is written once and every machine's position is packed
+ * into a single varint relative to it, followed by the same body a {@link MachineSyncS2CPacket} would have.
+ */
+public class MachineSyncBundleS2CPacket {
+    private final ChunkPos chunkPos;
+    private final List<MachineSyncS2CPacket> syncs;
+
+    public MachineSyncBundleS2CPacket(ChunkPos chunkPos, List<MachineSyncS2CPacket> syncs) {
+        this.chunkPos = chunkPos;
+        this.syncs = syncs;
+    }
+
+    public MachineSyncBundleS2CPacket(FriendlyByteBuf buf) {
+        this.chunkPos = buf.readChunkPos();
+        int count = buf.readVarInt();
+        this.syncs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            syncs.add(new MachineSyncS2CPacket(unpackPos(chunkPos, buf.readVarInt()), buf));
+        }
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        buf.writeChunkPos(chunkPos);
+        buf.writeVarInt(syncs.size());
+        for (MachineSyncS2CPacket sync : syncs) {
+            buf.writeVarInt(packPos(sync.getPos()));
+            sync.writeBody(buf);
+        }
+    }
+
+    // x and z within the chunk in the low byte, zigzag encoded y above it, so most positions fit in three bytes
+    private static int packPos(BlockPos pos) {
+        int y = pos.getY();
+        return (((y << 1) ^ (y >> 31)) << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    private static BlockPos unpackPos(ChunkPos chunkPos, int packed) {
+        int y = packed >>> 8;
+        return new BlockPos(chunkPos.getBlockX(packed & 15), (y >>> 1) ^ -(y & 1), chunkPos.getBlockZ((packed >> 4) & 15));
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> supplier) {
+        NetworkEvent.Context context = supplier.get();
+        context.enqueueWork(() -> {
+            // HERE WE ARE ON THE CLIENT!
+            for (MachineSyncS2CPacket sync : syncs) {
+                sync.apply();
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,148 @@
+package net.matty.bmbc.networking.packet;
+
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
+import net.matty.bmbc.screen.MachineMenu;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.material.Fluids;
+import net.minecraftforge.network.NetworkEvent;
+import net.minecraftforge.registries.ForgeRegistries;
+
+import java.util.function.Supplier;
+
+/**
+ * Syncs any bmbc machine to the clients tracking it. Only the fields set in the flags are written. Energy and fluid
+ * amount are zigzag varint deltas against the last values sent, starting from the machine's update tag in the chunk
+ * data. Fluid type and the progress fields are absolute.
+ * <p>
+ * Progress is only sent to the players with the machine's menu open, when they open it and when a craft starts,
+ * stalls or finishes. With {@link #RUNNING} set the client advances it by one every tick on its own, up to max
+ * progress.
+ */
+public class MachineSyncS2CPacket {
+    public static final int ENERGY = 1;
+    public static final int FLUID_AMOUNT = 1 << 1;
+    public static final int FLUID_TYPE = 1 << 2;
+    public static final int PROGRESS = 1 << 3;
+    public static final int STATE = 1 << 4;
+    public static final int RUNNING = 1 << 5;
+
+    private final BlockPos pos;
+    private final int flags;
+    private final int energy;
+    private final int fluidAmount;
+    private final Fluid fluid;
+    private final int progress;
+    private final int maxProgress;
+
+    public MachineSyncS2CPacket(BlockPos pos, int flags, int energy, int fluidAmount, Fluid fluid, int progress, int maxProgress) {
+        this.pos = pos;
+        this.flags = flags;
+        this.energy = energy;
+        this.fluidAmount = fluidAmount;
+        this.fluid = fluid;
+        this.progress = progress;
+        this.maxProgress = maxProgress;
+    }
+
+    public MachineSyncS2CPacket(FriendlyByteBuf buf) {
+        this(buf.readBlockPos(), buf);
+    }
+
+    /**
+     * Reads everything but the position, which the caller already knows, see {@link MachineSyncBundleS2CPacket}.
+     */
+    public MachineSyncS2CPacket(BlockPos pos, FriendlyByteBuf buf) {
+        this.pos = pos;
+        this.flags = buf.readUnsignedByte();
+        this.energy = has(ENERGY) ? readDelta(buf) : 0;
+        this.fluidAmount = has(FLUID_AMOUNT) ? readDelta(buf) : 0;
+        this.fluid = has(FLUID_TYPE) ? buf.readRegistryIdUnsafe(ForgeRegistries.FLUIDS) : Fluids.EMPTY;
+        this.progress = has(PROGRESS) ? buf.readVarInt() : 0;
+        this.maxProgress = has(STATE) ? buf.readVarInt() : 0;
+    }
+
+    public void toBytes(FriendlyByteBuf buf) {
+        buf.writeBlockPos(pos);
+        writeBody(buf);
+    }
+
+    public void writeBody(FriendlyByteBuf buf) {
+        buf.writeByte(flags);
+        if (has(ENERGY)) {
+            writeDelta(buf, energy);
+        }
+        if (has(FLUID_AMOUNT)) {
+            writeDelta(buf, fluidAmount);
+        }
+        if (has(FLUID_TYPE)) {
+            buf.writeRegistryIdUnsafe(ForgeRegistries.FLUIDS, fluid);
+        }
+        if (has(PROGRESS)) {
+            buf.writeVarInt(progress);
+        }
+        if (has(STATE)) {
+            buf.writeVarInt(maxProgress);
+        }
+    }
+
+    private static void writeDelta(FriendlyByteBuf buf, int value) {
+        buf.writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private static int readDelta(FriendlyByteBuf buf) {
+        int value = buf.readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    public boolean has(int field) {
+        return (flags & field) != 0;
+    }
+
+    public BlockPos getPos() {
+        return pos;
+    }
+
+    public boolean isRunning() {
+        return has(RUNNING);
+    }
+
+    public int getEnergy() {
+        return energy;
+    }
+
+    public int getFluidAmount() {
+        return fluidAmount;
+    }
+
+    public Fluid getFluid() {
+        return fluid;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public int getMaxProgress() {
+        return maxProgress;
+    }
+
+    public boolean handle(Supplier<NetworkEvent.Context> supplier) {
+        NetworkEvent.Context context = supplier.get();
+        context.enqueueWork(() -> {
+            // HERE WE ARE ON THE CLIENT!
+            apply();
+        });
+        return true;
+    }
+
+    void apply() {
+        if (Minecraft.getInstance().level.getBlockEntity(pos) instanceof AbstractMachineBlockEntity blockEntity) {
+            boolean viewing = Minecraft.getInstance().player.containerMenu instanceof MachineMenu menu &&
+                    menu.getBlockEntity().getBlockPos().equals(pos);
+            blockEntity.handleSync(this, viewing);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package net.matty.bmbc.recipe;
+
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.items.IItemHandler;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Optional;
+
+/**
+ * Remembers the last recipe a machine resolved so the tick loop doesn't scan the RecipeManager every tick.
+ * Call {@link #invalidate()} whenever the machine's inputs change. The recipe is looked up again once a datapack
+ * reload or tag rebind has swapped in a new {@link MachineRecipeIndex}.
+ */
+public class CachedRecipeLookup {
+    private final MachineRecipe.Type type;
+    @Nullable
+    private MachineRecipeIndex index;
+
+    private boolean stale = true;
+    private Object indexVersion;
+    private Optional<MachineRecipe> recipe = Optional.empty();
+
+    public CachedRecipeLookup(MachineRecipe.Type type) {
+        this.type = type;
+    }
+
+    public void invalidate() {
+        this.stale = true;
+    }
+
+    public boolean isStale(Level level) {
+        return stale || indexFor(level).getVersion(level) != indexVersion;
+    }
+
+    public Optional<MachineRecipe> get(Level level, IItemHandler itemHandler) {
+        MachineRecipeIndex index = indexFor(level);
+        Object version = index.getVersion(level);
+        if (stale || version != indexVersion) {
+            SimpleContainer inventory = new SimpleContainer(itemHandler.getSlots());
+            for (int i = 0; i < itemHandler.getSlots(); i++) {
+                inventory.setItem(i, itemHandler.getStackInSlot(i));
+            }
+
+            recipe = index.find(level, inventory);
+            indexVersion = version;
+            stale = false;
+        }
+
+        return recipe;
+    }
+
+    /**
+     * For {@code isItemValid}, so hoppers and pipes can't fill a slot with an item no recipe takes there.
+     */
+    public boolean isValidInput(@Nullable Level level, int slot, ItemStack stack) {
+        return level == null || indexFor(level).isValidInput(level, slot, stack);
+    }
+
+    private MachineRecipeIndex indexFor(Level level) {
+        if (index == null) {
+            index = MachineRecipeIndex.of(type, level);
+        }
+        return index;
+    }
+}
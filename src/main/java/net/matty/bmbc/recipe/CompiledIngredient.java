@@ -0,0 +1,67 @@
+package net.matty.bmbc.recipe;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.function.Consumer;
+
+/**
+ * An Ingredient flattened into a bitset over raw item ids, so testing a stack is one id lookup and one bit read.
+ * Ingredients that look at more than the item (NBT and other custom ingredients) keep using Ingredient.test.
+ */
+public class CompiledIngredient {
+    private final BitSet items;
+    @Nullable
+    private final Ingredient slowPath;
+    private final boolean matchesEmpty;
+
+    private CompiledIngredient(BitSet items, @Nullable Ingredient slowPath, boolean matchesEmpty) {
+        this.items = items;
+        this.slowPath = slowPath;
+        this.matchesEmpty = matchesEmpty;
+    }
+
+    public static CompiledIngredient compile(Ingredient ingredient) {
+        if (!ingredient.isSimple()) {
+            return new CompiledIngredient(new BitSet(), ingredient, false);
+        }
+
+        BitSet items = new BitSet();
+        for (ItemStack stack : ingredient.getItems()) {
+            items.set(BuiltInRegistries.ITEM.getId(stack.getItem()));
+        }
+        // Like Ingredient.test, an empty ingredient only accepts an empty slot
+        return new CompiledIngredient(items, null, ingredient.isEmpty());
+    }
+
+    /**
+     * @return false if the ingredient looks at more than the item, its items can't be listed then
+     */
+    public boolean isSimple() {
+        return slowPath == null;
+    }
+
+    public boolean isEmpty() {
+        return slowPath == null && items.isEmpty();
+    }
+
+    public void forEachItem(Consumer<Item> action) {
+        for (int id = items.nextSetBit(0); id >= 0; id = items.nextSetBit(id + 1)) {
+            action.accept(BuiltInRegistries.ITEM.byId(id));
+        }
+    }
+
+    public boolean test(ItemStack stack) {
+        if (slowPath != null) {
+            return slowPath.test(stack);
+        }
+        if (stack.isEmpty()) {
+            return matchesEmpty;
+        }
+        return items.get(BuiltInRegistries.ITEM.getId(stack.getItem()));
+    }
+}
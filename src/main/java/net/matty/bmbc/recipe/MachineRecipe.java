@@ -0,0 +1,298 @@
+package net.matty.bmbc.recipe;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import net.matty.bmbc.BetterMineBetterCraft;
+import net.matty.bmbc.util.FluidJSONUtil;
+import net.minecraft.core.NonNullList;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.*;
+import net.minecraft.world.level.Level;
+import net.minecraftforge.fluids.FluidStack;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A recipe for any bmbc machine: item ingredients, each tested against a slot of the machine, an optional fluid
+ * drawn from the machine's tank, and one or more outputs, see {@link MachineRecipeOutput}. Energy per tick and
+ * duration are optional, 0 means the machine's own default.
+ * <pre>
+ * {
+ *   "type": "bmbc:digestion",
+ *   "ingredients": [ { "item": "bmbc:crushed_bauxite" } ],
+ *   "slots": [ 1 ],                                  // optional, defaults to the machine's input slots
+ *   "fluid": { "FluidName": "...", "Amount": 500 },  // optional
+ *   "energy": 40,                                    // optional
+ *   "duration": 100,                                 // optional
+ *   "output": { "item": "bmbc:alumina" }             // or "outputs": [ ... ] for byproducts
+ * }
+ * </pre>
+ * Every machine shares this class and its serializer, the machine is picked by the {@link Type}.
+ */
+public class MachineRecipe implements Recipe<SimpleContainer> {
+    private final ResourceLocation id;
+    private final Type type;
+    private final NonNullList<Ingredient> recipeItems;
+    private final int[] slots;
+    private final FluidStack fluidStack;
+    private final int energyPerTick;
+    private final int duration;
+    private final List<MachineRecipeOutput> outputs;
+    private final OutputPlan outputPlan;
+    private final RecipeMatcher matcher;
+
+    public MachineRecipe(ResourceLocation id, Type type, NonNullList<Ingredient> recipeItems, int[] slots,
+                         FluidStack fluidStack, int energyPerTick, int duration, List<MachineRecipeOutput> outputs) {
+        this.id = id;
+        this.type = type;
+        this.recipeItems = recipeItems;
+        this.slots = slots;
+        this.fluidStack = fluidStack;
+        this.energyPerTick = energyPerTick;
+        this.duration = duration;
+        this.outputs = outputs;
+        this.outputPlan = new OutputPlan(outputs);
+        this.matcher = new RecipeMatcher(recipeItems);
+    }
+
+    @Override
+    public boolean matches(SimpleContainer pContainer, Level pLevel) {
+        if (pLevel.isClientSide()) {
+            return false;
+        }
+
+        for (int i = 0; i < slots.length; i++) {
+            if (!matcher.test(i, pContainer.getItem(slots[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ItemStack assemble(SimpleContainer pContainer, RegistryAccess registryAccess) {
+        return getResultItem();
+    }
+
+    @Override
+    public NonNullList<Ingredient> getIngredients() {
+        return recipeItems;
+    }
+
+    /**
+     * @return the machine slot the given ingredient is tested against
+     */
+    public int getSlot(int ingredient) {
+        return slots[ingredient];
+    }
+
+    public FluidStack getFluidStack() {
+        return fluidStack;
+    }
+
+    public int getEnergyPerTick() {
+        return energyPerTick;
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public List<MachineRecipeOutput> getOutputs() {
+        return outputs;
+    }
+
+    public OutputPlan getOutputPlan() {
+        return outputPlan;
+    }
+
+    RecipeMatcher getMatcher() {
+        return matcher;
+    }
+
+    @Override
+    public boolean canCraftInDimensions(int pWidth, int pHeight) {
+        return true;
+    }
+
+    public ItemStack getResultItem() {
+        return outputs.get(0).getStack().copy();
+    }
+
+    @Override
+    public ItemStack getResultItem(RegistryAccess registryAccess) {
+        return getResultItem();
+    }
+
+    @Override
+    public ResourceLocation getId() {
+        return id;
+    }
+
+    @Override
+    public RecipeSerializer<?> getSerializer() {
+        return type.serializer;
+    }
+
+    @Override
+    public Type getType() {
+        return type;
+    }
+
+    public static class Type implements RecipeType<MachineRecipe> {
+        public static final Type ALLOY_SMELTING = new Type("alloy_smelting", 3, 2, 0, 1);
+        public static final Type THREE_D_PRINTING = new Type("3d_printing", 4, 2, 0, 1);
+        public static final Type DIGESTION = new Type("digestion", 3, 2, 1);
+        public static final Type EXTRUSION = new Type("extrusion", 4, 2, 0, 1);
+        public static final Type MACERATION = new Type("maceration", 3, 1, 0);
+
+        public static final List<Type> ALL = List.of(ALLOY_SMELTING, THREE_D_PRINTING, DIGESTION, EXTRUSION, MACERATION);
+
+        private final String id;
+        private final int slotCount;
+        private final int outputSlot;
+        private final int[] inputSlots;
+        private final Serializer serializer = new Serializer(this);
+
+        /**
+         * @param slotCount  the number of item slots the machine has, recipes can't name a slot past them
+         * @param outputSlot the slot outputs go into when they don't name one
+         * @param inputSlots the slots a recipe's ingredients are tested against when it doesn't list its own. The
+         *                   first one is the slot recipes are indexed by.
+         */
+        private Type(String id, int slotCount, int outputSlot, int... inputSlots) {
+            this.id = id;
+            this.slotCount = slotCount;
+            this.outputSlot = outputSlot;
+            this.inputSlots = inputSlots;
+        }
+
+        public int getOutputSlot() {
+            return outputSlot;
+        }
+
+        public int getPrimarySlot() {
+            return inputSlots[0];
+        }
+
+        public Serializer getSerializer() {
+            return serializer;
+        }
+
+        @Override
+        public String toString() {
+            return BetterMineBetterCraft.MOD_ID + ":" + id;
+        }
+    }
+
+    public static class Serializer implements RecipeSerializer<MachineRecipe> {
+        private final Type type;
+
+        private Serializer(Type type) {
+            this.type = type;
+        }
+
+        @Override
+        public MachineRecipe fromJson(ResourceLocation pRecipeId, JsonObject pSerializedRecipe) {
+            JsonArray ingredients = GsonHelper.getAsJsonArray(pSerializedRecipe, "ingredients");
+            NonNullList<Ingredient> inputs = NonNullList.withSize(ingredients.size(), Ingredient.EMPTY);
+            for (int i = 0; i < inputs.size(); i++) {
+                inputs.set(i, Ingredient.fromJson(ingredients.get(i)));
+            }
+
+            int[] slots;
+            if (pSerializedRecipe.has("slots")) {
+                JsonArray slotArray = GsonHelper.getAsJsonArray(pSerializedRecipe, "slots");
+                if (slotArray.size() != inputs.size()) {
+                    throw new JsonSyntaxException("Expected one slot per ingredient in " + pRecipeId);
+                }
+                slots = new int[slotArray.size()];
+                for (int i = 0; i < slots.length; i++) {
+                    slots[i] = GsonHelper.convertToInt(slotArray.get(i), "slots[" + i + "]");
+                    if (slots[i] < 0 || slots[i] >= type.slotCount) {
+                        throw new JsonSyntaxException("Slot " + slots[i] + " is out of range for " + type
+                                + " recipes in " + pRecipeId + ", the machine has " + type.slotCount + " slots");
+                    }
+                }
+            } else if (inputs.size() <= type.inputSlots.length) {
+                slots = new int[inputs.size()];
+                System.arraycopy(type.inputSlots, 0, slots, 0, slots.length);
+            } else {
+                throw new JsonSyntaxException(type + " recipes take at most " + type.inputSlots.length
+                        + " ingredients unless they list their slots, " + pRecipeId + " has " + inputs.size());
+            }
+
+            FluidStack fluid = pSerializedRecipe.has("fluid")
+                    ? FluidJSONUtil.readFluid(GsonHelper.getAsJsonObject(pSerializedRecipe, "fluid"))
+                    : FluidStack.EMPTY;
+            int energyPerTick = GsonHelper.getAsInt(pSerializedRecipe, "energy", 0);
+            int duration = GsonHelper.getAsInt(pSerializedRecipe, "duration", 0);
+
+            List<MachineRecipeOutput> outputs = new ArrayList<>();
+            if (pSerializedRecipe.has("outputs")) {
+                for (JsonElement output : GsonHelper.getAsJsonArray(pSerializedRecipe, "outputs")) {
+                    outputs.add(MachineRecipeOutput.fromJson(GsonHelper.convertToJsonObject(output, "output"), type.outputSlot));
+                }
+            } else {
+                outputs.add(MachineRecipeOutput.fromJson(GsonHelper.getAsJsonObject(pSerializedRecipe, "output"), type.outputSlot));
+            }
+            if (outputs.isEmpty()) {
+                throw new JsonSyntaxException("No outputs in " + pRecipeId);
+            }
+            for (MachineRecipeOutput output : outputs) {
+                if (output.getSlot() >= type.slotCount) {
+                    throw new JsonSyntaxException("Output slot " + output.getSlot() + " is out of range for " + type
+                            + " recipes in " + pRecipeId + ", the machine has " + type.slotCount + " slots");
+                }
+                for (int slot : slots) {
+                    if (output.getSlot() == slot) {
+                        throw new JsonSyntaxException("Output slot " + slot + " is also an input slot in " + pRecipeId);
+                    }
+                }
+            }
+
+            return new MachineRecipe(pRecipeId, type, inputs, slots, fluid, energyPerTick, duration, outputs);
+        }
+
+        @Override
+        public @Nullable MachineRecipe fromNetwork(ResourceLocation id, FriendlyByteBuf buf) {
+            NonNullList<Ingredient> inputs = MachineRecipeCodec.readIngredients(buf);
+            int[] slots = new int[inputs.size()];
+            for (int i = 0; i < slots.length; i++) {
+                slots[i] = buf.readVarInt();
+            }
+            FluidStack fluid = buf.readFluidStack();
+            int energyPerTick = buf.readVarInt();
+            int duration = buf.readVarInt();
+            List<MachineRecipeOutput> outputs = new ArrayList<>();
+            for (int i = buf.readVarInt(); i > 0; i--) {
+                outputs.add(MachineRecipeOutput.fromNetwork(buf));
+            }
+            return new MachineRecipe(id, type, inputs, slots, fluid, energyPerTick, duration, outputs);
+        }
+
+        @Override
+        public void toNetwork(FriendlyByteBuf buf, MachineRecipe recipe) {
+            MachineRecipeCodec.writeIngredients(buf, recipe.getIngredients());
+            for (int slot : recipe.slots) {
+                buf.writeVarInt(slot);
+            }
+            buf.writeFluidStack(recipe.fluidStack);
+            buf.writeVarInt(recipe.energyPerTick);
+            buf.writeVarInt(recipe.duration);
+            buf.writeVarInt(recipe.outputs.size());
+            for (MachineRecipeOutput output : recipe.outputs) {
+                output.toNetwork(buf);
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package net.matty.bmbc.recipe;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.core.NonNullList;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Network format shared by the machine recipe serializers. Sizes are varints and ingredients go through a dictionary
+ * that lives as long as the buffer: the recipe packet writes every recipe into the same buffer, so an ingredient that
+ * shows up in several recipes (the same tag, the same dust) is written once and referenced by index after that.
+ * <p>
+ * The dictionary is per thread, since recipe packets for different players can be encoded at the same time, and is
+ * dropped as soon as a different buffer comes along. Reading mirrors writing, in the same order.
+ */
+public class MachineRecipeCodec {
+    private static final ThreadLocal<Dictionary> DICTIONARY = ThreadLocal.withInitial(Dictionary::new);
+
+    public static void writeIngredients(FriendlyByteBuf buf, List<Ingredient> ingredients) {
+        buf.writeVarInt(ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            writeIngredient(buf, ingredient);
+        }
+    }
+
+    public static NonNullList<Ingredient> readIngredients(FriendlyByteBuf buf) {
+        NonNullList<Ingredient> ingredients = NonNullList.withSize(buf.readVarInt(), Ingredient.EMPTY);
+        for (int i = 0; i < ingredients.size(); i++) {
+            ingredients.set(i, readIngredient(buf));
+        }
+        return ingredients;
+    }
+
+    public static void writeIngredient(FriendlyByteBuf buf, Ingredient ingredient) {
+        Dictionary dictionary = dictionaryFor(buf);
+
+        FriendlyByteBuf scratch = new FriendlyByteBuf(Unpooled.buffer());
+        ingredient.toNetwork(scratch);
+        byte[] bytes = new byte[scratch.readableBytes()];
+        scratch.readBytes(bytes);
+
+        // 0 means a new entry follows, anything else is the index of an earlier one plus one
+        ByteBuffer key = ByteBuffer.wrap(bytes);
+        Integer index = dictionary.written.get(key);
+        if (index != null) {
+            buf.writeVarInt(index + 1);
+            return;
+        }
+        dictionary.written.put(key, dictionary.written.size());
+        buf.writeVarInt(0);
+        buf.writeBytes(bytes);
+    }
+
+    public static Ingredient readIngredient(FriendlyByteBuf buf) {
+        Dictionary dictionary = dictionaryFor(buf);
+
+        int reference = buf.readVarInt();
+        if (reference > 0) {
+            return dictionary.read.get(reference - 1);
+        }
+        Ingredient ingredient = Ingredient.fromNetwork(buf);
+        dictionary.read.add(ingredient);
+        return ingredient;
+    }
+
+    public static void writeOutput(FriendlyByteBuf buf, ItemStack output) {
+        buf.writeItemStack(output, false);
+    }
+
+    public static ItemStack readOutput(FriendlyByteBuf buf) {
+        return buf.readItem();
+    }
+
+    private static Dictionary dictionaryFor(FriendlyByteBuf buf) {
+        Dictionary dictionary = DICTIONARY.get();
+        if (dictionary.buf.get() != buf) {
+            dictionary.buf = new WeakReference<>(buf);
+            dictionary.written.clear();
+            dictionary.read.clear();
+        }
+        return dictionary;
+    }
+
+    private static class Dictionary {
+        private WeakReference<FriendlyByteBuf> buf = new WeakReference<>(null);
+        private final Map<ByteBuffer, Integer> written = new HashMap<>();
+        private final List<Ingredient> read = new ArrayList<>();
+    }
+}
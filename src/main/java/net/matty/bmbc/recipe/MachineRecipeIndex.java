@@ -0,0 +1,240 @@
+package net.matty.bmbc.recipe;
+
+import net.minecraft.Util;
+import net.minecraft.world.SimpleContainer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Buckets the recipes of one machine recipe type by the item their primary ingredient accepts, so finding a recipe
+ * only tests the handful of candidates for the item in the primary input slot. The primary ingredient is the one a
+ * recipe tests against the type's primary slot. Tag ingredients are expanded into the items of the tag. Recipes
+ * whose primary ingredient can't be expanded (NBT or custom ingredients, empty or missing ingredients) go into a
+ * wildcard bucket that is tested for every lookup.
+ * <p>
+ * It also keeps the reverse, the items any recipe takes in each slot, so automation can be turned away from a slot
+ * without looking for a recipe. The client has its own indices, built from the recipes it was sent.
+ * <p>
+ * After a datapack reload or a tag rebind, {@link #rebuildAll} compiles the ingredients on the calling thread, since
+ * Ingredient isn't safe to resolve from anywhere else, and builds the new indices from the compiled item sets on the
+ * background workers. Each index is swapped in whole once it's done, until then machines keep using the previous one.
+ * Only an index that was never built is built on the spot.
+ */
+public class MachineRecipeIndex {
+    private static final Map<MachineRecipe.Type, MachineRecipeIndex> INDICES = new IdentityHashMap<>();
+    private static final Map<MachineRecipe.Type, MachineRecipeIndex> CLIENT_INDICES = new IdentityHashMap<>();
+    private static final AtomicInteger TAG_GENERATION = new AtomicInteger();
+    // Orders the rebuilds, so one that finishes late can't replace a newer index
+    private static final AtomicInteger REQUESTS = new AtomicInteger();
+
+    private final MachineRecipe.Type type;
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+    // Rebuilds requested before the last clear belong to a world that's gone
+    private volatile int clearedAt = 0;
+
+    private MachineRecipeIndex(MachineRecipe.Type type) {
+        this.type = type;
+    }
+
+    public static MachineRecipeIndex of(MachineRecipe.Type type, Level level) {
+        return of(type, level.isClientSide());
+    }
+
+    private static synchronized MachineRecipeIndex of(MachineRecipe.Type type, boolean client) {
+        return (client ? CLIENT_INDICES : INDICES).computeIfAbsent(type, MachineRecipeIndex::new);
+    }
+
+    public static void onTagsUpdated() {
+        TAG_GENERATION.incrementAndGet();
+    }
+
+    static int getTagGeneration() {
+        return TAG_GENERATION.get();
+    }
+
+    /**
+     * Drops the indices when leaving a world, the next one is built from its own recipes.
+     */
+    public static void clearAll(boolean client) {
+        int request = REQUESTS.incrementAndGet();
+        for (MachineRecipe.Type type : MachineRecipe.Type.ALL) {
+            MachineRecipeIndex index = of(type, client);
+            index.clearedAt = request;
+            index.current.set(null);
+        }
+    }
+
+    /**
+     * Rebuilds the indices of every machine recipe type in the background. Call on the thread that owns the
+     * RecipeManager, the ingredients are compiled before this returns.
+     */
+    public static void rebuildAll(RecipeManager manager, boolean client) {
+        int request = REQUESTS.incrementAndGet();
+        int generation = TAG_GENERATION.get();
+        for (MachineRecipe.Type type : MachineRecipe.Type.ALL) {
+            MachineRecipeIndex index = of(type, client);
+            List<Entry> entries = compile(manager.getAllRecipesFor(type), generation);
+            CompletableFuture.supplyAsync(() -> index.build(entries, request), Util.backgroundExecutor())
+                    .thenAccept(index::swap);
+        }
+    }
+
+    private static List<Entry> compile(List<MachineRecipe> recipes, int generation) {
+        List<Entry> entries = new ArrayList<>(recipes.size());
+        for (MachineRecipe recipe : recipes) {
+            entries.add(new Entry(recipe, recipe.getMatcher().compile(generation).getIngredients()));
+        }
+        return entries;
+    }
+
+    public Optional<MachineRecipe> find(Level level, SimpleContainer container) {
+        Snapshot snapshot = snapshot(level);
+
+        List<MachineRecipe> candidates = snapshot.byItem.get(container.getItem(type.getPrimarySlot()).getItem());
+        if (candidates != null) {
+            for (MachineRecipe recipe : candidates) {
+                if (recipe.matches(container, level)) {
+                    return Optional.of(recipe);
+                }
+            }
+        }
+
+        for (MachineRecipe recipe : snapshot.wildcard) {
+            if (recipe.matches(container, level)) {
+                return Optional.of(recipe);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * @return false if no recipe takes the item in that slot, and for output slots. Slots no recipe uses at all, like
+     *         the machine's own extra slots, take anything.
+     */
+    public boolean isValidInput(Level level, int slot, ItemStack stack) {
+        Snapshot snapshot = snapshot(level);
+
+        if (snapshot.outputs.contains(slot)) {
+            return false;
+        }
+        if (snapshot.openSlots.contains(slot)) {
+            return true;
+        }
+        Set<Item> items = snapshot.inputs.get(slot);
+        return items == null || items.contains(stack.getItem());
+    }
+
+    /**
+     * @return the index in use, a different object after every rebuild
+     */
+    public Object getVersion(Level level) {
+        return snapshot(level);
+    }
+
+    private Snapshot snapshot(Level level) {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            swap(build(compile(level.getRecipeManager().getAllRecipesFor(type), TAG_GENERATION.get()), REQUESTS.get()));
+            snapshot = current.get();
+        }
+        return snapshot;
+    }
+
+    private void swap(Snapshot fresh) {
+        if (fresh.request < clearedAt) {
+            return;
+        }
+        current.accumulateAndGet(fresh, (old, next) -> old == null || next.request >= old.request ? next : old);
+    }
+
+    private Snapshot build(List<Entry> entries, int request) {
+        Map<Item, List<MachineRecipe>> items = new HashMap<>();
+        List<MachineRecipe> rest = new ArrayList<>();
+        Map<Integer, Set<Item>> slotItems = new HashMap<>();
+        Set<Integer> open = new HashSet<>();
+        Set<Integer> outputs = new HashSet<>();
+        outputs.add(type.getOutputSlot());
+        for (Entry entry : entries) {
+            MachineRecipe recipe = entry.recipe;
+            for (int i = 0; i < entry.ingredients.length; i++) {
+                CompiledIngredient ingredient = entry.ingredients[i];
+                if (!ingredient.isSimple()) {
+                    open.add(recipe.getSlot(i));
+                    continue;
+                }
+                ingredient.forEachItem(slotItems.computeIfAbsent(recipe.getSlot(i), slot -> new HashSet<>())::add);
+            }
+            for (MachineRecipeOutput output : recipe.getOutputs()) {
+                outputs.add(output.getSlot());
+            }
+
+            CompiledIngredient primary = getPrimaryIngredient(entry);
+            if (primary == null || primary.isEmpty() || !primary.isSimple()) {
+                rest.add(recipe);
+                continue;
+            }
+
+            primary.forEachItem(item -> items.computeIfAbsent(item, key -> new ArrayList<>()).add(recipe));
+        }
+
+        return new Snapshot(request, items, rest, slotItems, open, outputs);
+    }
+
+    @Nullable
+    private CompiledIngredient getPrimaryIngredient(Entry entry) {
+        for (int i = 0; i < entry.ingredients.length; i++) {
+            if (entry.recipe.getSlot(i) == type.getPrimarySlot()) {
+                return entry.ingredients[i];
+            }
+        }
+        return null;
+    }
+
+    // A recipe with the ingredients compiled for it, all a worker needs to index it
+    private static class Entry {
+        private final MachineRecipe recipe;
+        private final CompiledIngredient[] ingredients;
+
+        private Entry(MachineRecipe recipe, CompiledIngredient[] ingredients) {
+            this.recipe = recipe;
+            this.ingredients = ingredients;
+        }
+    }
+
+    private static class Snapshot {
+        private final int request;
+        private final Map<Item, List<MachineRecipe>> byItem;
+        private final List<MachineRecipe> wildcard;
+        // Items taken in each slot, and the slots with an ingredient whose items can't be listed
+        private final Map<Integer, Set<Item>> inputs;
+        private final Set<Integer> openSlots;
+        // Slots any recipe puts its outputs into
+        private final Set<Integer> outputs;
+
+        private Snapshot(int request, Map<Item, List<MachineRecipe>> byItem, List<MachineRecipe> wildcard,
+                         Map<Integer, Set<Item>> inputs, Set<Integer> openSlots, Set<Integer> outputs) {
+            this.request = request;
+            this.byItem = byItem;
+            this.wildcard = wildcard;
+            this.inputs = inputs;
+            this.openSlots = openSlots;
+            this.outputs = outputs;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package net.matty.bmbc.recipe;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.ShapedRecipe;
+
+/**
+ * One product of a {@link MachineRecipe}: a stack with its count, the chance it's produced each craft and the slot it
+ * goes into.
+ * <pre>
+ * { "item": "bmbc:alumina", "count": 2, "chance": 0.25, "slot": 3 }
+ * </pre>
+ * Chance and slot are optional, defaulting to always and the machine's output slot.
+ */
+public class MachineRecipeOutput {
+    private final ItemStack stack;
+    private final float chance;
+    private final int slot;
+
+    public MachineRecipeOutput(ItemStack stack, float chance, int slot) {
+        this.stack = stack;
+        this.chance = chance;
+        this.slot = slot;
+    }
+
+    public static MachineRecipeOutput fromJson(JsonObject json, int defaultSlot) {
+        ItemStack stack = ShapedRecipe.itemStackFromJson(json);
+        float chance = GsonHelper.getAsFloat(json, "chance", 1.0F);
+        if (chance <= 0.0F || chance > 1.0F) {
+            throw new JsonSyntaxException("Output chance must be above 0 and at most 1, was " + chance);
+        }
+        int slot = GsonHelper.getAsInt(json, "slot", defaultSlot);
+        if (slot < 0) {
+            throw new JsonSyntaxException("Output slot can't be negative, was " + slot);
+        }
+        return new MachineRecipeOutput(stack, chance, slot);
+    }
+
+    public static MachineRecipeOutput fromNetwork(FriendlyByteBuf buf) {
+        return new MachineRecipeOutput(MachineRecipeCodec.readOutput(buf), buf.readFloat(), buf.readVarInt());
+    }
+
+    public void toNetwork(FriendlyByteBuf buf) {
+        MachineRecipeCodec.writeOutput(buf, stack);
+        buf.writeFloat(chance);
+        buf.writeVarInt(slot);
+    }
+
+    /**
+     * @return the stack produced, don't modify it
+     */
+    public ItemStack getStack() {
+        return stack;
+    }
+
+    public float getChance() {
+        return chance;
+    }
+
+    public boolean isGuaranteed() {
+        return chance >= 1.0F;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+}
@@ -11,20 +11,20 @@ public class ModRecipes {
     public static final DeferredRegister<RecipeSerializer<?>> SERIALIZERS =
             DeferredRegister.create(ForgeRegistries.RECIPE_SERIALIZERS, BetterMineBetterCraft.MOD_ID);
 
-    public static final RegistryObject<RecipeSerializer<AlloySmeltingRecipe>> ALLOY_SMELTER_SERIALIZER =
-            SERIALIZERS.register("alloy_smelting", () -> AlloySmeltingRecipe.Serializer.INSTANCE);
+    public static final RegistryObject<RecipeSerializer<MachineRecipe>> ALLOY_SMELTER_SERIALIZER =
+            SERIALIZERS.register("alloy_smelting", MachineRecipe.Type.ALLOY_SMELTING::getSerializer);
 
-    public static final RegistryObject<RecipeSerializer<ThreeDPrinterRecipe>> THREE_D_PRINTING_SERIALIZER =
-            SERIALIZERS.register("3d_printing", ThreeDPrinterRecipe.Serializer::new);
+    public static final RegistryObject<RecipeSerializer<MachineRecipe>> THREE_D_PRINTING_SERIALIZER =
+            SERIALIZERS.register("3d_printing", MachineRecipe.Type.THREE_D_PRINTING::getSerializer);
 
-    public static final RegistryObject<RecipeSerializer<PressureVesselRecipe>> DIGESTION_SERIALIZER =
-            SERIALIZERS.register("digestion", () -> PressureVesselRecipe.Serializer.INSTANCE);
+    public static final RegistryObject<RecipeSerializer<MachineRecipe>> DIGESTION_SERIALIZER =
+            SERIALIZERS.register("digestion", MachineRecipe.Type.DIGESTION::getSerializer);
 
-    public static final RegistryObject<RecipeSerializer<ExtruderRecipe>> EXTRUSION_SERIALIZER =
-            SERIALIZERS.register("extrusion", () -> ExtruderRecipe.Serializer.INSTANCE);
+    public static final RegistryObject<RecipeSerializer<MachineRecipe>> EXTRUSION_SERIALIZER =
+            SERIALIZERS.register("extrusion", MachineRecipe.Type.EXTRUSION::getSerializer);
 
-    public static final RegistryObject<RecipeSerializer<MaceratorRecipe>> MACERATOR_SERIALIZER =
-            SERIALIZERS.register("maceration", () -> MaceratorRecipe.Serializer.INSTANCE);
+    public static final RegistryObject<RecipeSerializer<MachineRecipe>> MACERATOR_SERIALIZER =
+            SERIALIZERS.register("maceration", MachineRecipe.Type.MACERATION::getSerializer);
 
     public static void register(IEventBus eventBus) {
         SERIALIZERS.register(eventBus);
@@ -0,0 +1,110 @@
+package net.matty.bmbc.recipe;
+
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.ItemStack;
+import net.minecraftforge.items.IItemHandler;
+import net.minecraftforge.items.IItemHandlerModifiable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where the outputs of a {@link MachineRecipe} go, worked out once when the recipe is loaded. Outputs are grouped by
+ * slot with the most a single craft can put into each, chance outputs counted as if they always roll. Checking
+ * whether a machine has room then only compares counts, without building stacks every tick.
+ */
+public class OutputPlan {
+    private final int[] slots;
+    private final ItemStack[] templates;
+    private final int[] perCraft;
+    private final MachineRecipeOutput[][] outputs;
+
+    /**
+     * @throws IllegalArgumentException if two different items would go into the same slot
+     */
+    public OutputPlan(List<MachineRecipeOutput> recipeOutputs) {
+        List<Integer> slotList = new ArrayList<>();
+        List<List<MachineRecipeOutput>> grouped = new ArrayList<>();
+        for (MachineRecipeOutput output : recipeOutputs) {
+            int group = slotList.indexOf(output.getSlot());
+            if (group < 0) {
+                slotList.add(output.getSlot());
+                grouped.add(new ArrayList<>());
+                group = grouped.size() - 1;
+            } else if (!ItemStack.isSameItemSameTags(grouped.get(group).get(0).getStack(), output.getStack())) {
+                throw new IllegalArgumentException("Different outputs can't share slot " + output.getSlot());
+            }
+            grouped.get(group).add(output);
+        }
+
+        this.slots = new int[slotList.size()];
+        this.templates = new ItemStack[slots.length];
+        this.perCraft = new int[slots.length];
+        this.outputs = new MachineRecipeOutput[slots.length][];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = slotList.get(i);
+            outputs[i] = grouped.get(i).toArray(new MachineRecipeOutput[0]);
+            templates[i] = outputs[i][0].getStack();
+            for (MachineRecipeOutput output : outputs[i]) {
+                perCraft[i] += output.getStack().getCount();
+            }
+        }
+    }
+
+    /**
+     * @return how many crafts in a row fit into the output slots, even if every chance output rolls
+     */
+    public int getMaxCrafts(IItemHandler handler) {
+        int crafts = Integer.MAX_VALUE;
+        for (int i = 0; i < slots.length && crafts > 0; i++) {
+            crafts = Math.min(crafts, getSpace(handler, i) / Math.max(perCraft[i], 1));
+        }
+        return crafts;
+    }
+
+    public boolean canInsert(IItemHandler handler) {
+        return getMaxCrafts(handler) > 0;
+    }
+
+    /**
+     * Puts the outputs of the given number of crafts into their slots, rolling the chance outputs once per craft.
+     * Check {@link #getMaxCrafts} first.
+     */
+    public void insert(IItemHandlerModifiable handler, int crafts, RandomSource random) {
+        for (int i = 0; i < slots.length; i++) {
+            int count = 0;
+            for (MachineRecipeOutput output : outputs[i]) {
+                int rolled = crafts;
+                if (!output.isGuaranteed()) {
+                    rolled = 0;
+                    for (int craft = 0; craft < crafts; craft++) {
+                        if (random.nextFloat() < output.getChance()) {
+                            rolled++;
+                        }
+                    }
+                }
+                count += output.getStack().getCount() * rolled;
+            }
+
+            if (count > 0) {
+                ItemStack stack = templates[i].copy();
+                stack.setCount(handler.getStackInSlot(slots[i]).getCount() + count);
+                handler.setStackInSlot(slots[i], stack);
+            }
+        }
+    }
+
+    private int getSpace(IItemHandler handler, int index) {
+        int slot = slots[index];
+        if (slot >= handler.getSlots()) {
+            return 0;
+        }
+
+        ItemStack current = handler.getStackInSlot(slot);
+        int limit = Math.min(templates[index].getMaxStackSize(), handler.getSlotLimit(slot));
+        if (current.isEmpty()) {
+            return limit;
+        }
+        return ItemStack.isSameItemSameTags(current, templates[index]) ? limit - current.getCount() : 0;
+    }
+}
@@ -0,0 +1,58 @@
+package net.matty.bmbc.recipe;
+
+import net.minecraft.core.NonNullList;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+
+/**
+ * The compiled ingredients of one recipe. They're compiled again after the tags are rebound, since a tag ingredient's
+ * items are only known then. That happens on the thread that owns the recipes when the {@link MachineRecipeIndex} is
+ * rebuilt, tests in between keep using the previous ingredients. The recipe can be shared by the server and client
+ * threads in singleplayer, so the compiled ingredients are swapped in whole.
+ */
+public class RecipeMatcher {
+    private final NonNullList<Ingredient> ingredients;
+    private volatile Compiled compiled = new Compiled(-1, new CompiledIngredient[0]);
+
+    public RecipeMatcher(NonNullList<Ingredient> ingredients) {
+        this.ingredients = ingredients;
+    }
+
+    public boolean test(int ingredient, ItemStack stack) {
+        Compiled current = compiled;
+        // Only a recipe that was never indexed is compiled here
+        if (current.tagGeneration < 0) {
+            current = compile(MachineRecipeIndex.getTagGeneration());
+        }
+        return current.ingredients[ingredient].test(stack);
+    }
+
+    Compiled compile(int tagGeneration) {
+        Compiled current = compiled;
+        if (current.tagGeneration == tagGeneration) {
+            return current;
+        }
+
+        CompiledIngredient[] fresh = new CompiledIngredient[ingredients.size()];
+        for (int i = 0; i < fresh.length; i++) {
+            fresh[i] = CompiledIngredient.compile(ingredients.get(i));
+        }
+        current = new Compiled(tagGeneration, fresh);
+        compiled = current;
+        return current;
+    }
+
+    static class Compiled {
+        private final int tagGeneration;
+        private final CompiledIngredient[] ingredients;
+
+        private Compiled(int tagGeneration, CompiledIngredient[] ingredients) {
+            this.tagGeneration = tagGeneration;
+            this.ingredients = ingredients;
+        }
+
+        CompiledIngredient[] getIngredients() {
+            return ingredients;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package net.matty.bmbc.screen;
 
 import net.matty.bmbc.block.ModBlocks;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
 import net.matty.bmbc.block.entity.AlloyFurnaceBlockEntity;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Inventory;
@@ -12,13 +13,17 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.items.SlotItemHandler;
 
-public class AlloyFurnaceMenu extends AbstractContainerMenu {
+public class AlloyFurnaceMenu extends AbstractContainerMenu implements MachineMenu {
     private AlloyFurnaceBlockEntity blockEntity;
     private Level level;
     private final ContainerData data;
 
     public AlloyFurnaceMenu(int id, Inventory inventory, FriendlyByteBuf extraData) {
-        this(id, inventory, inventory.player.level.getBlockEntity(extraData.readBlockPos()), new SimpleContainerData(3));
+        this(id, inventory, inventory.player.level.getBlockEntity(extraData.readBlockPos()));
+    }
+
+    private AlloyFurnaceMenu(int id, Inventory inventory, BlockEntity entity) {
+        this(id, inventory, entity, AbstractMachineBlockEntity.getMenuData(entity));
     }
 
     public AlloyFurnaceMenu(int id, Inventory inv, BlockEntity entity, ContainerData data) {
@@ -37,11 +42,15 @@ public class AlloyFurnaceMenu extends AbstractContainerMenu {
             this.addSlot(new SlotItemHandler(handler, 2, 105, 36));
         });
 
+        for (int i = 0; i < AbstractMachineBlockEntity.UPGRADE_SLOTS; i++) {
+            this.addSlot(new SlotItemHandler(this.blockEntity.getUpgradeHandler(), i, 180, 8 + i * 18));
+        }
+
         addDataSlots(data);
     }
 
     public boolean isCrafting() {
-        return data.get(0) > 0;
+        return blockEntity.getPredictedProgress() > 0;
     }
 
     public AlloyFurnaceBlockEntity getBlockEntity() {
@@ -49,8 +58,8 @@ public class AlloyFurnaceMenu extends AbstractContainerMenu {
     }
 
     public int getScaledProgress() {
-        int progress = this.data.get(0);
-        int maxProgress = this.data.get(1);  // Max Progress
+        int progress = blockEntity.getPredictedProgress();
+        int maxProgress = blockEntity.getMaxProgress();
         int progressArrowSize = 27; // This is the height in pixels of your arrow
 
         return maxProgress != 0 && progress != 0 ? progress * progressArrowSize / maxProgress : 0;
@@ -72,7 +81,7 @@ public class AlloyFurnaceMenu extends AbstractContainerMenu {
     private static final int TE_INVENTORY_FIRST_SLOT_INDEX = VANILLA_FIRST_SLOT_INDEX + VANILLA_SLOT_COUNT;
 
     // THIS YOU HAVE TO DEFINE!
-    private static final int TE_INVENTORY_SLOT_COUNT = 3;  // must be the number of slots you have!
+    private static final int TE_INVENTORY_SLOT_COUNT = 3 + AbstractMachineBlockEntity.UPGRADE_SLOTS;  // must be the number of slots you have!
     @Override
     public ItemStack quickMoveStack(Player playerIn, int index) {
         Slot sourceSlot = slots.get(index);
@@ -1,6 +1,7 @@
 package net.matty.bmbc.screen;
 
 import net.matty.bmbc.block.ModBlocks;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
 import net.matty.bmbc.block.entity.ExtruderBlockEntity;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Inventory;
@@ -12,13 +13,17 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.items.SlotItemHandler;
 
-public class ExtruderMenu extends AbstractContainerMenu {
+public class ExtruderMenu extends AbstractContainerMenu implements MachineMenu {
     public final ExtruderBlockEntity blockEntity;
     private final Level level;
     private final ContainerData data;
 
     public ExtruderMenu(int id, Inventory inv, FriendlyByteBuf extraData) {
-        this(id, inv, inv.player.level.getBlockEntity(extraData.readBlockPos()), new SimpleContainerData(3));
+        this(id, inv, inv.player.level.getBlockEntity(extraData.readBlockPos()));
+    }
+
+    private ExtruderMenu(int id, Inventory inv, BlockEntity entity) {
+        this(id, inv, entity, AbstractMachineBlockEntity.getMenuData(entity));
     }
 
     public ExtruderMenu(int id, Inventory inv, BlockEntity entity, ContainerData data) {
@@ -38,11 +43,15 @@ public class ExtruderMenu extends AbstractContainerMenu {
             this.addSlot(new SlotItemHandler(handler, 3, 8, 54));
         });
 
+        for (int i = 0; i < AbstractMachineBlockEntity.UPGRADE_SLOTS; i++) {
+            this.addSlot(new SlotItemHandler(this.blockEntity.getUpgradeHandler(), i, 180, 8 + i * 18));
+        }
+
         addDataSlots(data);
     }
 
     public boolean isCrafting() {
-        return data.get(0) > 0;
+        return blockEntity.getPredictedProgress() > 0;
     }
 
     public ExtruderBlockEntity getBlockEntity() {
@@ -50,8 +59,8 @@ public class ExtruderMenu extends AbstractContainerMenu {
     }
 
     public int getScaledProgress() {
-        int progress = this.data.get(0);
-        int maxProgress = this.data.get(1);  // Max Progress
+        int progress = blockEntity.getPredictedProgress();
+        int maxProgress = blockEntity.getMaxProgress();
         int progressArrowSize = 18; // This is the height in pixels of your arrow
 
         return maxProgress != 0 && progress != 0 ? progress * progressArrowSize / maxProgress : 0;
@@ -73,7 +82,7 @@ public class ExtruderMenu extends AbstractContainerMenu {
     private static final int TE_INVENTORY_FIRST_SLOT_INDEX = VANILLA_FIRST_SLOT_INDEX + VANILLA_SLOT_COUNT;
 
     // THIS YOU HAVE TO DEFINE!
-    private static final int TE_INVENTORY_SLOT_COUNT = 4;  // must be the number of slots you have!
+    private static final int TE_INVENTORY_SLOT_COUNT = 4 + AbstractMachineBlockEntity.UPGRADE_SLOTS;  // must be the number of slots you have!
     @Override
     public ItemStack quickMoveStack(Player playerIn, int index) {
         Slot sourceSlot = slots.get(index);
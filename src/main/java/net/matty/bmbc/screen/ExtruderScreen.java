@@ -3,6 +3,8 @@ package net.matty.bmbc.screen;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import net.matty.bmbc.BetterMineBetterCraft;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
+import net.matty.bmbc.screen.renderer.UpgradeSlotsRenderer;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
 import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.network.chat.Component;
@@ -33,6 +35,7 @@ public class ExtruderScreen extends AbstractContainerScreen<ExtruderMenu> {
         this.blit(pPoseStack, x, y, 0, 0, imageWidth, imageHeight);
 
         renderProgressArrow(pPoseStack, x, y);
+        UpgradeSlotsRenderer.render(pPoseStack, x, y, AbstractMachineBlockEntity.UPGRADE_SLOTS);
     }
 
     private void renderProgressArrow(PoseStack pPoseStack, int x, int y) {
@@ -1,7 +1,8 @@
 package net.matty.bmbc.screen;
 
 import net.matty.bmbc.block.ModBlocks;
-import net.matty.bmbc.block.entity.AlloyFurnaceBlockEntity;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
+import net.matty.bmbc.block.entity.HydroelectricBlockEntity;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Inventory;
 import net.minecraft.world.entity.player.Player;
@@ -12,19 +13,23 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.items.SlotItemHandler;
 
-public class HydroelectricPlantMenu extends AbstractContainerMenu {
-    private AlloyFurnaceBlockEntity blockEntity;
+public class HydroelectricPlantMenu extends AbstractContainerMenu implements MachineMenu {
+    private HydroelectricBlockEntity blockEntity;
     private Level level;
     private final ContainerData data;
 
     public HydroelectricPlantMenu(int id, Inventory inventory, FriendlyByteBuf extraData) {
-        this(id, inventory, inventory.player.level.getBlockEntity(extraData.readBlockPos()), new SimpleContainerData(2));
+        this(id, inventory, inventory.player.level.getBlockEntity(extraData.readBlockPos()));
+    }
+
+    private HydroelectricPlantMenu(int id, Inventory inventory, BlockEntity entity) {
+        this(id, inventory, entity, AbstractMachineBlockEntity.getMenuData(entity));
     }
 
     public HydroelectricPlantMenu(int id, Inventory inv, BlockEntity entity, ContainerData data) {
         super(ModMenuTypes.HYDROELECTRIC_PLANT_MENU.get(), id);
         checkContainerSize(inv, 2);
-        blockEntity = (AlloyFurnaceBlockEntity) entity;
+        blockEntity = (HydroelectricBlockEntity) entity;
         this.level = inv.player.level;
         this.data = data;
 
@@ -36,20 +41,24 @@ public class HydroelectricPlantMenu extends AbstractContainerMenu {
             this.addSlot(new SlotItemHandler(handler, 1, 79, 60));
         });
 
+        for (int i = 0; i < AbstractMachineBlockEntity.UPGRADE_SLOTS; i++) {
+            this.addSlot(new SlotItemHandler(this.blockEntity.getUpgradeHandler(), i, 180, 8 + i * 18));
+        }
+
         addDataSlots(data);
     }
 
     public boolean isGenerating() {
-        return data.get(0) > 0;
+        return blockEntity.getPredictedProgress() > 0;
     }
 
-    public AlloyFurnaceBlockEntity getBlockEntity() {
+    public HydroelectricBlockEntity getBlockEntity() {
         return this.blockEntity;
     }
 
     public int getScaledProgress() {
-        int progress = this.data.get(0);
-        int maxProgress = this.data.get(1);  // Max Progress
+        int progress = blockEntity.getPredictedProgress();
+        int maxProgress = blockEntity.getMaxProgress();
         int progressArrowSize = 27; // This is the height in pixels of your arrow
 
         return maxProgress != 0 && progress != 0 ? progress * progressArrowSize / maxProgress : 0;
@@ -71,7 +80,7 @@ public class HydroelectricPlantMenu extends AbstractContainerMenu {
     private static final int TE_INVENTORY_FIRST_SLOT_INDEX = VANILLA_FIRST_SLOT_INDEX + VANILLA_SLOT_COUNT;
 
     // THIS YOU HAVE TO DEFINE!
-    private static final int TE_INVENTORY_SLOT_COUNT = 2;  // must be the number of slots you have!
+    private static final int TE_INVENTORY_SLOT_COUNT = 2 + AbstractMachineBlockEntity.UPGRADE_SLOTS;  // must be the number of slots you have!
     @Override
     public ItemStack quickMoveStack(Player playerIn, int index) {
         Slot sourceSlot = slots.get(index);
@@ -109,7 +118,7 @@ public class HydroelectricPlantMenu extends AbstractContainerMenu {
     @Override
     public boolean stillValid(Player player) {
         return stillValid(ContainerLevelAccess.create(level, blockEntity.getBlockPos()),
-                player, ModBlocks.ALLOY_FURNACE.get());
+                player, ModBlocks.HYDROELECTRIC_PLANT.get());
     }
 
     // Where to place the different slots
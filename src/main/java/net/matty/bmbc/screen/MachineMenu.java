@@ -0,0 +1,7 @@
+package net.matty.bmbc.screen;
+
+import net.minecraft.world.level.block.entity.BlockEntity;
+
+public interface MachineMenu {
+    BlockEntity getBlockEntity();
+}
@@ -1,6 +1,7 @@
 package net.matty.bmbc.screen;
 
 import net.matty.bmbc.block.ModBlocks;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
 import net.matty.bmbc.block.entity.PressureVesselBlockEntity;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.world.entity.player.Inventory;
@@ -13,14 +14,17 @@ import net.minecraftforge.common.capabilities.ForgeCapabilities;
 import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.items.SlotItemHandler;
 
-public class PressureVesselMenu extends AbstractContainerMenu {
+public class PressureVesselMenu extends AbstractContainerMenu implements MachineMenu {
     public final PressureVesselBlockEntity blockEntity;
     private final Level level;
     private final ContainerData data;
-    private FluidStack fluidStack;
 
     public PressureVesselMenu(int id, Inventory inv, FriendlyByteBuf extraData) {
-        this(id, inv, inv.player.level.getBlockEntity(extraData.readBlockPos()), new SimpleContainerData(2));
+        this(id, inv, inv.player.level.getBlockEntity(extraData.readBlockPos()));
+    }
+
+    private PressureVesselMenu(int id, Inventory inv, BlockEntity entity) {
+        this(id, inv, entity, AbstractMachineBlockEntity.getMenuData(entity));
     }
 
     public PressureVesselMenu(int id, Inventory inv, BlockEntity entity, ContainerData data) {
@@ -29,7 +33,6 @@ public class PressureVesselMenu extends AbstractContainerMenu {
         blockEntity = (PressureVesselBlockEntity) entity;
         this.level = inv.player.level;
         this.data = data;
-        this.fluidStack = blockEntity.getFluidStack();
 
         addPlayerInventory(inv);
         addPlayerHotbar(inv);
@@ -40,19 +43,19 @@ public class PressureVesselMenu extends AbstractContainerMenu {
             this.addSlot(new SlotItemHandler(handler, 2, 86, 60));
         });
 
+        for (int i = 0; i < AbstractMachineBlockEntity.UPGRADE_SLOTS; i++) {
+            this.addSlot(new SlotItemHandler(this.blockEntity.getUpgradeHandler(), i, 180, 8 + i * 18));
+        }
+
         addDataSlots(data);
     }
 
     public boolean isCrafting() {
-        return data.get(0) > 0;
-    }
-
-    public void setFluid(FluidStack fluidStack) {
-        this.fluidStack = fluidStack;
+        return blockEntity.getPredictedProgress() > 0;
     }
 
     public FluidStack getFluidStack() {
-        return fluidStack;
+        return blockEntity.getFluidStack();
     }
 
     public PressureVesselBlockEntity getBlockEntity() {
@@ -60,8 +63,8 @@ public class PressureVesselMenu extends AbstractContainerMenu {
     }
 
     public int getScaledProgress() {
-        int progress = this.data.get(0);
-        int maxProgress = this.data.get(1);  // Max Progress
+        int progress = blockEntity.getPredictedProgress();
+        int maxProgress = blockEntity.getMaxProgress();
         int progressArrowSize = 26; // This is the height in pixels of your arrow
 
         return maxProgress != 0 && progress != 0 ? progress * progressArrowSize / maxProgress : 0;
@@ -82,7 +85,7 @@ public class PressureVesselMenu extends AbstractContainerMenu {
     private static final int TE_INVENTORY_FIRST_SLOT_INDEX = VANILLA_FIRST_SLOT_INDEX + VANILLA_SLOT_COUNT;
 
     // THIS YOU HAVE TO DEFINE!
-    private static final int TE_INVENTORY_SLOT_COUNT = 3;  // must be the number of slots you have!
+    private static final int TE_INVENTORY_SLOT_COUNT = 3 + AbstractMachineBlockEntity.UPGRADE_SLOTS;  // must be the number of slots you have!
     @Override
     public ItemStack quickMoveStack(Player playerIn, int index) {
         Slot sourceSlot = slots.get(index);
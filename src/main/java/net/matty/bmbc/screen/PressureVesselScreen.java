@@ -3,8 +3,10 @@ package net.matty.bmbc.screen;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import net.matty.bmbc.BetterMineBetterCraft;
+import net.matty.bmbc.block.entity.AbstractMachineBlockEntity;
 import net.matty.bmbc.screen.renderer.EnergyInfoArea;
 import net.matty.bmbc.screen.renderer.FluidTankRenderer;
+import net.matty.bmbc.screen.renderer.UpgradeSlotsRenderer;
 import net.matty.bmbc.util.MouseUtil;
 import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
 import net.minecraft.client.renderer.GameRenderer;
@@ -79,6 +81,7 @@ public class PressureVesselScreen extends AbstractContainerScreen<PressureVessel
         renderProgressArrow(pPoseStack, x, y);
         energyInfoArea.draw(pPoseStack);
         renderer.render(pPoseStack, x + 55, y +15, menu.getFluidStack());
+        UpgradeSlotsRenderer.render(pPoseStack, x, y, AbstractMachineBlockEntity.UPGRADE_SLOTS);
     }
 
     private void renderProgressArrow(PoseStack pPoseStack, int x, int y) {
@@ -0,0 +1,28 @@
+package net.matty.bmbc.screen.renderer;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import net.minecraft.client.gui.GuiComponent;
+
+/**
+ * Draws the panel for the machine upgrade slots, which hangs off the right edge of the machine GUIs.
+ * The slots themselves sit at x 180, y 8 + 18 * slot in the menus.
+ */
+public class UpgradeSlotsRenderer {
+    public static void render(PoseStack poseStack, int x, int y, int slots) {
+        int left = x + 176;
+        int top = y + 4;
+        int right = left + 25;
+        int bottom = top + 7 + slots * 18;
+
+        GuiComponent.fill(poseStack, left, top, right, bottom, 0xFF555555);
+        GuiComponent.fill(poseStack, left, top + 1, right - 1, bottom - 1, 0xFFC6C6C6);
+
+        for (int i = 0; i < slots; i++) {
+            int slotX = x + 180;
+            int slotY = y + 8 + i * 18;
+            GuiComponent.fill(poseStack, slotX - 1, slotY - 1, slotX + 17, slotY + 17, 0xFF373737);
+            GuiComponent.fill(poseStack, slotX, slotY, slotX + 17, slotY + 17, 0xFFFFFFFF);
+            GuiComponent.fill(poseStack, slotX, slotY, slotX + 16, slotY + 16, 0xFF8B8B8B);
+        }
+    }
+}
@@ -10,7 +10,7 @@ public abstract class BmbcEnergyStorage extends EnergyStorage {
     @Override
     public int extractEnergy(int maxExtract, boolean simulate) {
         int extractedEnergy = super.extractEnergy(maxExtract, simulate);
-        if(extractedEnergy != 0) {
+        if(extractedEnergy != 0 && !simulate) {
             onEnergyChanged();
         }
 
@@ -20,7 +20,7 @@ public abstract class BmbcEnergyStorage extends EnergyStorage {
     @Override
     public int receiveEnergy(int maxReceive, boolean simulate) {
         int receiveEnergy = super.receiveEnergy(maxReceive, simulate);
-        if(receiveEnergy != 0) {
+        if(receiveEnergy != 0 && !simulate) {
             onEnergyChanged();
         }
 